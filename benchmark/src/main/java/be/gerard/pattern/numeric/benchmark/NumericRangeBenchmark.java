@@ -0,0 +1,45 @@
+package be.gerard.pattern.numeric.benchmark;
+
+import be.gerard.pattern.numeric.NumericRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumericRangeBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int size;
+
+    @Param
+    private Shape shape;
+
+    private List<Long> numbers;
+
+    @Setup
+    public void setUp() {
+        numbers = shape.sorted(size);
+    }
+
+    @Benchmark
+    public List<NumericRange<Long>> groupSubsequentNumbers() {
+        return NumericRange.groupSubsequentNumbers(numbers);
+    }
+
+}
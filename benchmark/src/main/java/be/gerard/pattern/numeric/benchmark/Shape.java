@@ -0,0 +1,89 @@
+package be.gerard.pattern.numeric.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Shapes of the generated input, from the best case (a single repeating cycle) to the worst case (no pattern at all).
+ * Every shape is generated from a fixed seed, so every fork measures the same input.
+ */
+public enum Shape {
+
+    PURE_CYCLE {
+        @Override
+        long[] increments(
+                final int size,
+                final SplittableRandom random
+        ) {
+            final long[] increments = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                increments[i] = CYCLE[i % CYCLE.length];
+            }
+
+            return increments;
+        }
+    },
+
+    NOISY_CYCLE {
+        @Override
+        long[] increments(
+                final int size,
+                final SplittableRandom random
+        ) {
+            final long[] increments = PURE_CYCLE.increments(size, random);
+
+            for (int i = 0; i < size; i++) {
+                if (random.nextInt(100) < NOISE_PERCENTAGE) {
+                    increments[i] = random.nextLong(1, MAXIMUM_INCREMENT + 1);
+                }
+            }
+
+            return increments;
+        }
+    },
+
+    RANDOM {
+        @Override
+        long[] increments(
+                final int size,
+                final SplittableRandom random
+        ) {
+            return random.longs(size, 1, MAXIMUM_INCREMENT + 1).toArray();
+        }
+    };
+
+    private static final long SEED = 20_231_017L;
+    private static final long[] CYCLE = {1, 2, 1, 3, 1, 2};
+    private static final int NOISE_PERCENTAGE = 5;
+    private static final long MAXIMUM_INCREMENT = 8;
+
+    abstract long[] increments(int size, SplittableRandom random);
+
+    /**
+     * @return {@code size} positive increments, as input for the unsorted analyses.
+     */
+    public List<Long> unsorted(
+            final int size
+    ) {
+        return Arrays.stream(increments(size, new SplittableRandom(SEED)))
+                .boxed()
+                .toList();
+    }
+
+    /**
+     * @return {@code size} strictly increasing values, of which the increments have this shape.
+     */
+    public List<Long> sorted(
+            final int size
+    ) {
+        final long[] values = increments(size, new SplittableRandom(SEED));
+        Arrays.parallelPrefix(values, Long::sum);
+
+        return Arrays.stream(values)
+                .boxed()
+                .toList();
+    }
+
+}
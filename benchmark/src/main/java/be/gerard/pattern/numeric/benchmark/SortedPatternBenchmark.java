@@ -0,0 +1,140 @@
+package be.gerard.pattern.numeric.benchmark;
+
+import be.gerard.pattern.numeric.Fit;
+import be.gerard.pattern.numeric.NumericPattern;
+import be.gerard.pattern.numeric.NumericRange;
+import be.gerard.pattern.numeric.SortedNumericPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The analyses of sorted sequences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortedPatternBenchmark {
+
+    private static final long MAXIMUM_INCREMENT = 8;
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"256", "4096", "65536"})
+    private int size;
+
+    @Param
+    private Shape shape;
+
+    private List<Long> values;
+    private SortedNumericPattern<Long> pattern;
+    private long patternLength;
+    private long[] queries;
+    private SortedNumericPattern<Long> ranges;
+
+    @Setup
+    public void setUp() {
+        values = shape.sorted(size);
+        pattern = NumericPattern.sorted(values);
+        patternLength = pattern.last() + 1;
+        queries = new SplittableRandom(size).longs(QUERY_COUNT, -patternLength, 2 * patternLength).toArray();
+        ranges = NumericPattern.ranges(List.of(
+                NumericRange.of(-patternLength, patternLength / 2),
+                NumericRange.of(patternLength, 64 * patternLength)
+        ));
+    }
+
+    @Benchmark
+    public Set<Fit<Long>> groupCommonIncrements() {
+        return pattern.groupCommonIncrements(MAXIMUM_INCREMENT);
+    }
+
+    @Benchmark
+    public Set<Fit<Long>> groupCycles() {
+        return pattern.groupCycles(patternLength);
+    }
+
+    /**
+     * A single query, of which the pattern derived whatever it needs for queries during an earlier one.
+     */
+    @Benchmark
+    public boolean canReach() {
+        return pattern.canReach(queries[0]);
+    }
+
+    /**
+     * A single query on a pattern which was just created, including whatever the pattern has to derive for it.
+     */
+    @Benchmark
+    public boolean canReachFirst(
+            final FreshPattern fresh
+    ) {
+        return fresh.pattern.canReach(queries[0]);
+    }
+
+    @Benchmark
+    public boolean[] canReachAll() {
+        return pattern.canReach(queries);
+    }
+
+    @Benchmark
+    public Set<Long> findDistinctCombinatorialIncrements() {
+        return pattern.findDistinctCombinatorialIncrements(MAXIMUM_INCREMENT);
+    }
+
+    /**
+     * All increments, for which dense patterns switch from visiting every pair to autocorrelation.
+     */
+    @Benchmark
+    public BitSet combinatorialIncrementBitmap() {
+        return pattern.combinatorialIncrementBitmap(patternLength);
+    }
+
+    /**
+     * The pattern is split in containers first, the ranges are kept as runs.
+     */
+    @Benchmark
+    public SortedNumericPattern<Long> intersectionWithRanges() {
+        return pattern.intersection(ranges);
+    }
+
+    @Benchmark
+    public SortedNumericPattern<Long> symmetricDifferenceWithRanges() {
+        return pattern.symmetricDifference(ranges);
+    }
+
+    /**
+     * A pattern of the same values, created again before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class FreshPattern {
+
+        private SortedNumericPattern<Long> pattern;
+
+        @Setup(Level.Invocation)
+        public void setUp(
+                final SortedPatternBenchmark benchmark
+        ) {
+            pattern = NumericPattern.sorted(benchmark.values);
+        }
+
+    }
+
+}
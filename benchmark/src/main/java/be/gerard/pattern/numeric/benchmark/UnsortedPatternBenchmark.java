@@ -0,0 +1,61 @@
+package be.gerard.pattern.numeric.benchmark;
+
+import be.gerard.pattern.numeric.NumericPattern;
+import be.gerard.pattern.numeric.NumericRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The analyses of unsorted sequences, which are (far) more than linear in the size of the sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnsortedPatternBenchmark {
+
+    @Param({"16", "64", "256", "1024"})
+    private int size;
+
+    @Param
+    private Shape shape;
+
+    private List<Long> sequence;
+
+    @Setup
+    public void setUp() {
+        sequence = shape.unsorted(size);
+    }
+
+    @Benchmark
+    public Set<NumericRange<Integer>> splitByMostLikelyPattern() {
+        return NumericPattern.splitByMostLikelyPattern(sequence);
+    }
+
+    @Benchmark
+    public Set<NumericRange<Integer>> splitByMostLikelyPatternInParallel() {
+        return NumericPattern.splitByMostLikelyPattern(sequence, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public Set<List<Long>> findAllBestFittingSubsequences() {
+        return NumericPattern.findAllBestFittingSubsequences(sequence);
+    }
+
+}
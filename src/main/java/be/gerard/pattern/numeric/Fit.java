@@ -1,9 +1,10 @@
 package be.gerard.pattern.numeric;
 
+import be.gerard.pattern.numeric.internal.RepetitionMatcher;
+
 import java.util.List;
 import java.util.stream.IntStream;
 
-import static java.util.Collections.indexOfSubList;
 import static org.apache.commons.lang3.Validate.isTrue;
 import static org.apache.commons.lang3.Validate.notEmpty;
 
@@ -37,6 +38,19 @@ public sealed interface Fit<T extends Number> permits Fit.Sequential, Fit.Increm
         );
     }
 
+    static ValidationLevel validationLevel() {
+        return Validation.level();
+    }
+
+    /**
+     * Applies to all fits constructed afterwards, in all threads.
+     */
+    static void setValidationLevel(
+            final ValidationLevel level
+    ) {
+        Validation.level(level);
+    }
+
     List<T> sequence();
 
     record Sequential<T extends Number>(
@@ -48,10 +62,22 @@ public sealed interface Fit<T extends Number> permits Fit.Sequential, Fit.Increm
             notEmpty(sequence);
             notEmpty(subsequence);
 
-            isTrue(NumericPattern.findAllVariations(subsequence)
-                    .stream()
-                    .anyMatch(variation -> indexOfSubList(sequence, variation) >= 0)
-            );
+            if (Validation.isRequired()) {
+                isTrue(new RepetitionMatcher(sequence).containsRotation(subsequence));
+            }
+        }
+
+        /**
+         * Skips the validation, for fits of which the subsequence is known to occur in the sequence.
+         */
+        static <T extends Number> Sequential<T> trusted(
+                @Unsorted final List<T> sequence,
+                @Unsorted final List<T> subsequence
+        ) {
+            return Validation.trusted(() -> new Sequential<>(
+                    sequence,
+                    subsequence
+            ));
         }
 
         /**
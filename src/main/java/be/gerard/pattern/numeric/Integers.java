@@ -1,32 +1,215 @@
 package be.gerard.pattern.numeric;
 
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.IntStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 import static org.apache.commons.lang3.Validate.isTrue;
 import static org.apache.commons.lang3.Validate.notEmpty;
 
 public final class Integers {
 
+    private static final int FACTORIZATION_CACHE_SIZE = 1024;
+
+    private static final Map<Long, Map<Long, Integer>> FACTORIZATIONS = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(
+                final Map.Entry<Long, Map<Long, Integer>> eldest
+        ) {
+            return size() > FACTORIZATION_CACHE_SIZE;
+        }
+    });
+
     private Integers() {
         // no-op
     }
 
+    /**
+     * @throws ArithmeticException when the result does not fit in an {@code int}.
+     */
     static int leastCommonMultiple(
             final Collection<Integer> numbers
     ) {
         notEmpty(numbers);
         isTrue(numbers.stream().allMatch(n -> n.longValue() > 0));
 
-        final int firstNumber = numbers.stream()
-                .mapToInt(Number::intValue)
-                .findFirst()
-                .orElseThrow();
+        return Math.toIntExact(leastCommonMultiple(numbers.stream()
+                .mapToLong(Integer::longValue)
+                .toArray()
+        ));
+    }
+
+    /**
+     * @return The greatest common divisor of the absolute values, which is 0 only when both are 0.
+     * @throws ArithmeticException when the greatest common divisor is 2^63, i.e. for {@link Long#MIN_VALUE} and either 0 or itself.
+     */
+    public static long greatestCommonDivisor(
+            final long a,
+            final long b
+    ) {
+        return Math.negateExact(negatedGreatestCommonDivisor(a, b));
+    }
+
+    /**
+     * @throws ArithmeticException when the greatest common divisor is 2^63, i.e. when all numbers are {@link Long#MIN_VALUE} or 0, and not all of them are 0.
+     */
+    public static long greatestCommonDivisor(
+            final long... numbers
+    ) {
+        isTrue(numbers.length > 0);
+
+        long negatedGreatestCommonDivisor = 0;
+
+        for (final long number : numbers) {
+            negatedGreatestCommonDivisor = negatedGreatestCommonDivisor(negatedGreatestCommonDivisor, number);
+
+            if (negatedGreatestCommonDivisor == -1) {
+                break;
+            }
+        }
+
+        return Math.negateExact(negatedGreatestCommonDivisor);
+    }
+
+    /**
+     * Euclid's algorithm on the negated absolute values, which (unlike the absolute values) all fit in a {@code long}.
+     */
+    private static long negatedGreatestCommonDivisor(
+            final long a,
+            final long b
+    ) {
+        long x = a > 0 ? -a : a;
+        long y = b > 0 ? -b : b;
+
+        while (y != 0) {
+            final long remainder = x % y;
+            x = y;
+            y = remainder;
+        }
+
+        return x;
+    }
+
+    /**
+     * @throws ArithmeticException when the result does not fit in a {@code long}.
+     */
+    public static long leastCommonMultiple(
+            final long a,
+            final long b
+    ) {
+        isTrue(a > 0 && b > 0);
+
+        return Math.multiplyExact(a / greatestCommonDivisor(a, b), b);
+    }
+
+    /**
+     * @throws ArithmeticException when the result does not fit in a {@code long}.
+     */
+    public static long leastCommonMultiple(
+            final long... numbers
+    ) {
+        isTrue(numbers.length > 0);
+
+        return Arrays.stream(numbers)
+                .reduce(1, Integers::leastCommonMultiple);
+    }
+
+    /**
+     * Same as {@link #leastCommonMultiple(long...)}, but continues with {@link BigInteger} when the result does not fit in a {@code long}.
+     */
+    public static BigInteger leastCommonMultipleExact(
+            final long... numbers
+    ) {
+        isTrue(numbers.length > 0);
+        isTrue(Arrays.stream(numbers).allMatch(number -> number > 0));
+
+        long leastCommonMultiple = 1;
+
+        for (int i = 0; i < numbers.length; i++) {
+            try {
+                leastCommonMultiple = leastCommonMultiple(leastCommonMultiple, numbers[i]);
+            } catch (final ArithmeticException overflow) {
+                return Arrays.stream(numbers, i, numbers.length)
+                        .mapToObj(BigInteger::valueOf)
+                        .reduce(BigInteger.valueOf(leastCommonMultiple), (x, y) -> x.divide(x.gcd(y)).multiply(y));
+            }
+        }
+
+        return BigInteger.valueOf(leastCommonMultiple);
+    }
+
+    /**
+     * Factorizes by trial division in O(sqrt(n)). The most recently used factorizations are cached.
+     *
+     * @return The exponent of every prime factor, ordered by prime.
+     */
+    public static Map<Long, Integer> primeFactors(
+            final long number
+    ) {
+        isTrue(number > 0);
+
+        final Map<Long, Integer> cached = FACTORIZATIONS.get(number);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final Map<Long, Integer> primeFactors = new TreeMap<>();
+        long remainder = number;
+
+        for (long divisor = 2; divisor <= remainder / divisor; divisor++) {
+            while (remainder % divisor == 0) {
+                primeFactors.merge(divisor, 1, Integer::sum);
+                remainder /= divisor;
+            }
+        }
+
+        if (remainder > 1) {
+            primeFactors.merge(remainder, 1, Integer::sum);
+        }
+
+        final Map<Long, Integer> factorization = Collections.unmodifiableMap(primeFactors);
+        FACTORIZATIONS.put(number, factorization);
+
+        return factorization;
+    }
+
+    /**
+     * @return All positive divisors, in ascending order, derived from the (cached) prime factors.
+     */
+    public static long[] divisors(
+            final long number
+    ) {
+        final Map<Long, Integer> primeFactors = primeFactors(number);
+        final int divisorCount = primeFactors.values()
+                .stream()
+                .mapToInt(exponent -> exponent + 1)
+                .reduce(1, Math::multiplyExact);
+
+        final long[] divisors = new long[divisorCount];
+        divisors[0] = 1;
+        int size = 1;
+
+        for (final Map.Entry<Long, Integer> primeFactor : primeFactors.entrySet()) {
+            final int previousSize = size;
+            long power = 1;
+
+            for (int exponent = 1; exponent <= primeFactor.getValue(); exponent++) {
+                power *= primeFactor.getKey();
+
+                for (int i = 0; i < previousSize; i++) {
+                    divisors[size++] = divisors[i] * power;
+                }
+            }
+        }
+
+        Arrays.sort(divisors);
 
-        return IntStream.iterate(firstNumber, i -> i + firstNumber)
-                .filter(i -> numbers.stream().allMatch(number -> i % number == 0))
-                .findFirst()
-                .orElse(0);
+        return divisors;
     }
 
 }
@@ -1,12 +1,32 @@
 package be.gerard.pattern.numeric;
 
+import be.gerard.pattern.numeric.PatternMetrics.Analysis;
+import be.gerard.pattern.numeric.internal.AnalysisProbe;
+import be.gerard.pattern.numeric.internal.ContainerSet;
+import be.gerard.pattern.numeric.internal.Containment;
+import be.gerard.pattern.numeric.internal.LongArrayView;
+import be.gerard.pattern.numeric.internal.Longs;
+import be.gerard.pattern.numeric.internal.Periods;
+import be.gerard.pattern.numeric.internal.RepetitionMatcher;
+import be.gerard.pattern.numeric.internal.Rotations;
+import be.gerard.pattern.numeric.internal.Runs;
+import be.gerard.pattern.numeric.internal.SequenceContainers;
+import be.gerard.pattern.numeric.internal.SequenceCyclic;
 import be.gerard.pattern.numeric.internal.SequenceEmpty;
+import be.gerard.pattern.numeric.internal.SequenceMapped;
 import be.gerard.pattern.numeric.internal.SequenceSorted;
+import be.gerard.pattern.numeric.internal.SequenceSortedLong;
 import be.gerard.pattern.numeric.internal.SequenceUnsorted;
+import be.gerard.pattern.numeric.internal.SequenceUnsortedLong;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -14,22 +34,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
-import static java.util.Collections.indexOfSubList;
 import static java.util.Collections.singleton;
-import static java.util.Comparator.comparing;
-import static java.util.Comparator.comparingInt;
-import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.mapping;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.apache.commons.lang3.Validate.notNull;
 
 public interface NumericPattern<T extends Number> {
 
@@ -43,6 +63,70 @@ public interface NumericPattern<T extends Number> {
         return SequenceSorted.of(sequence);
     }
 
+    static SortedNumericPattern<Long> sorted(
+            final long[] sequence
+    ) {
+        if (sequence.length == 0) {
+            return empty();
+        }
+
+        return SequenceSortedLong.of(sequence);
+    }
+
+    /**
+     * The start, followed by {@code repetitions} repetitions of the (positive) increments of the cycle,
+     * of which only the cycle is stored: the sequence and its intervals are computed when they are requested.
+     */
+    static SortedNumericPattern<Long> cyclic(
+            final long start,
+            final long[] cycle,
+            final long repetitions
+    ) {
+        return SequenceCyclic.of(start, cycle, repetitions);
+    }
+
+    /**
+     * Same as {@link #cyclic(long, long[], long)}, but repeated infinitely.
+     * Its sequence presents the first {@link Integer#MAX_VALUE} elements.
+     */
+    static SortedNumericPattern<Long> cyclic(
+            final long start,
+            final long[] cycle
+    ) {
+        return SequenceCyclic.of(start, cycle, SequenceCyclic.UNBOUNDED);
+    }
+
+    /**
+     * All numbers of the ranges, which may overlap, kept as runs of consecutive numbers, see {@link SortedNumericPattern#union(SortedNumericPattern)}.
+     *
+     * @throws IllegalArgumentException when the ranges contain more than {@link Integer#MAX_VALUE} numbers.
+     */
+    static SortedNumericPattern<Long> ranges(
+            final Collection<? extends NumericRange<? extends Number>> ranges
+    ) {
+        notNull(ranges);
+
+        return SequenceContainers.of(ContainerSet.ofRanges(ranges));
+    }
+
+    /**
+     * Maps a file of strictly increasing, little-endian {@code long}s into memory, instead of reading it.
+     * The sequence, intervals, gaps and splits by deviating increments are then views of the file, see {@link #streamAllGaps()}.
+     *
+     * @throws IllegalArgumentException when the file does not consist of strictly increasing longs.
+     */
+    static SortedNumericPattern<Long> mapped(
+            final Path path
+    ) throws IOException {
+        notNull(path);
+
+        if (Files.size(path) == 0) {
+            return empty();
+        }
+
+        return SequenceMapped.of(path);
+    }
+
     static <T extends Number> SortedNumericPattern<T> empty() {
         return new SequenceEmpty<>();
     }
@@ -57,51 +141,127 @@ public interface NumericPattern<T extends Number> {
         return SequenceUnsorted.of(sequence);
     }
 
+    static NumericPattern<Long> unsorted(
+            final long[] sequence
+    ) {
+        if (sequence.length == 0) {
+            return empty();
+        }
+
+        return SequenceUnsortedLong.of(sequence);
+    }
+
+    static NumericPatternBuilder builder() {
+        return new NumericPatternBuilder();
+    }
+
     static <T extends Number> Set<Fit.Sequential<T>> findAllPartialFits(
             @Unsorted final List<T> sequence
     ) {
-        final Set<List<T>> allPossibleSubsequences = findAllPossibleSubsequences(sequence);
-
-        return allPossibleSubsequences.stream()
-                .map(subsequence -> Fit.sequential(
-                        subsequence,
-                        findShortestRepeatingSubsequence(subsequence)
-                ))
-                .filter(Fit.Sequential::isPartialFit)
-                .collect(toUnmodifiableSet());
+        final AnalysisProbe probe = AnalysisProbe.start(Analysis.FIND_ALL_PARTIAL_FITS, sequence.size());
+
+        try {
+            final Set<List<T>> allPossibleSubsequences = findAllPossibleSubsequences(sequence);
+            probe.candidates(allPossibleSubsequences.size());
+
+            return allPossibleSubsequences.stream()
+                    .map(subsequence -> Fit.Sequential.trusted(
+                            subsequence,
+                            findShortestRepeatingSubsequence(subsequence)
+                    ))
+                    .filter(Fit.Sequential::isPartialFit)
+                    .collect(toUnmodifiableSet());
+        } finally {
+            probe.end();
+        }
     }
 
+    /**
+     * @return The maximal repetitions (subsequences that repeat a rotation of their shortest repeating subsequence more than once),
+     * except those that also occur within a longer one with the same repeating subsequence.
+     */
     static <T extends Number> Set<Fit.Sequential<T>> findAllNonRepeatablePartialFits(
             @Unsorted final List<T> sequence
     ) {
-        final Set<List<T>> allPossibleSubsequences = findAllPossibleSubsequences(sequence);
-
-        final Map<List<T>, Set<List<T>>> longestSequencesByRepeatingSubsequence = allPossibleSubsequences.stream()
-                .collect(groupingBy(
-                        subsequence -> findBaseVariation(findShortestRepeatingSubsequence(subsequence)),
-                        collectingAndThen(
-                                toUnmodifiableSet(),
-                                NumericPattern::filterRepeatedSubsequences
-                        )
-                ));
+        final AnalysisProbe probe = AnalysisProbe.start(Analysis.FIND_ALL_NON_REPEATABLE_PARTIAL_FITS, sequence.size());
+
+        try {
+            final List<Runs.Run> maximalRepetitions = Runs.maximalRepetitions(Longs.toArray(sequence));
+            probe.candidates(maximalRepetitions.size());
+
+            final Map<List<T>, Set<List<T>>> longestSequencesByRepeatingSubsequence = maximalRepetitions.stream()
+                    .collect(groupingBy(
+                            repetition -> findBaseVariation(sequence.subList(repetition.start(), repetition.start() + repetition.period())),
+                            collectingAndThen(
+                                    mapping(repetition -> sequence.subList(repetition.start(), repetition.end()), toUnmodifiableSet()),
+                                    NumericPattern::filterRepeatedSubsequences
+                            )
+                    ));
+
+            return longestSequencesByRepeatingSubsequence.entrySet()
+                    .stream()
+                    .flatMap(entry -> entry.getValue()
+                            .stream()
+                            .map(longestSequence -> Fit.Sequential.trusted(
+                                    longestSequence,
+                                    entry.getKey()
+                            ))
+                    )
+                    .collect(toUnmodifiableSet());
+        } finally {
+            probe.end();
+        }
+    }
 
-        return longestSequencesByRepeatingSubsequence.entrySet()
-                .stream()
-                .flatMap(entry -> entry.getValue()
-                        .stream()
-                        .map(longestSequence -> Fit.sequential(
-                                longestSequence,
-                                entry.getKey()
-                        ))
-                )
-                .filter(Fit.Sequential::isPartialFit)
-                .collect(toUnmodifiableSet());
+    /**
+     * Runs are the maximal repetitions that repeat their shortest repeating subsequence at least twice, they are found in O(n log n).
+     *
+     * @return All runs, with the base variation of their shortest repeating subsequence.
+     */
+    static <T extends Number> Set<Fit.Sequential<T>> findAllRuns(
+            @Unsorted final List<T> sequence
+    ) {
+        final AnalysisProbe probe = AnalysisProbe.start(Analysis.FIND_ALL_RUNS, sequence.size());
+
+        try {
+            final List<Runs.Run> runs = Runs.of(Longs.toArray(sequence));
+            probe.candidates(runs.size());
+
+            return runs.stream()
+                    .map(run -> Fit.Sequential.trusted(
+                            sequence.subList(run.start(), run.end()),
+                            findBaseVariation(sequence.subList(run.start(), run.start() + run.period()))
+                    ))
+                    .collect(toUnmodifiableSet());
+        } finally {
+            probe.end();
+        }
     }
 
+
     static <T extends Number> Set<List<T>> findAllBestFittingSubsequences(
             @Unsorted final List<T> sequence
     ) {
-        final Set<Fit.Sequential<T>> allNonRepeatablePartialFits = findAllNonRepeatablePartialFits(sequence);
+        final AnalysisProbe probe = AnalysisProbe.start(Analysis.FIND_ALL_BEST_FITTING_SUBSEQUENCES, sequence.size());
+
+        try {
+            return findAllBestFittingSubsequences(sequence, probe);
+        } finally {
+            probe.end();
+        }
+    }
+
+    private static <T extends Number> Set<List<T>> findAllBestFittingSubsequences(
+            @Unsorted final List<T> sequence,
+            final AnalysisProbe probe
+    ) {
+        final Set<Fit.Sequential<T>> allRuns = findAllRuns(sequence);
+
+        // runs have a compression factor of at least 2, the other partial fits only matter when there are no runs
+        final Set<Fit.Sequential<T>> allNonRepeatablePartialFits = allRuns.isEmpty()
+                ? findAllNonRepeatablePartialFits(sequence)
+                : allRuns;
+        probe.candidates(allNonRepeatablePartialFits.size());
 
         final Map<Double, Set<List<T>>> subsequencesByScore = allNonRepeatablePartialFits.stream()
                 .collect(groupingBy(
@@ -120,53 +280,73 @@ public interface NumericPattern<T extends Number> {
 
     static <T extends Number> Set<NumericRange<Integer>> splitByMostLikelyPattern(
             @Unsorted final List<T> sequence
+    ) {
+        final AnalysisProbe probe = AnalysisProbe.start(Analysis.SPLIT_BY_MOST_LIKELY_PATTERN, sequence.size());
+
+        try {
+            return splitByMostLikelyPattern(sequence, false, probe, 0);
+        } finally {
+            probe.end();
+        }
+    }
+
+    /**
+     * Same result as {@link #splitByMostLikelyPattern(List)}, but the scans for every start index
+     * and the refinements of the unhandled ranges (which are independent slices of the sequence) run as fork/join tasks in {@code pool}.
+     */
+    static <T extends Number> Set<NumericRange<Integer>> splitByMostLikelyPattern(
+            @Unsorted final List<T> sequence,
+            final ForkJoinPool pool
+    ) {
+        notNull(sequence);
+        notNull(pool);
+
+        final AnalysisProbe probe = AnalysisProbe.start(Analysis.SPLIT_BY_MOST_LIKELY_PATTERN, sequence.size());
+
+        try {
+            // parallel streams fork their tasks into the pool of the task they are running in
+            return pool.invoke(ForkJoinTask.adapt(() -> splitByMostLikelyPattern(sequence, true, probe, 0)));
+        } finally {
+            probe.end();
+        }
+    }
+
+    /**
+     * @param probe told about the candidates and the depth of every (recursive) call
+     * @param depth the number of calls to which the sequence is an unhandled range
+     */
+    private static <T extends Number> Set<NumericRange<Integer>> splitByMostLikelyPattern(
+            @Unsorted final List<T> sequence,
+            final boolean parallel,
+            final AnalysisProbe probe,
+            final int depth
     ) {
         if (sequence.isEmpty()) {
             return emptySet();
         }
 
+        probe.recursion(depth);
+
         final Set<List<T>> allBestFittingSubsequences = findAllBestFittingSubsequences(sequence);
 
         if (allBestFittingSubsequences.isEmpty()) {
             return singleton(NumericRange.of(0, sequence.size() - 1));
         }
 
-        final List<? extends Pair<List<T>, List<Integer>>> bestFittingPairs = findAllFittingRepeatableSubsequencesWithTheirRepetitions(
+        final List<? extends Pair<List<T>, NumericRange<Integer>>> bestFittingPairs = findAllFittingRepeatableSubsequencesWithTheirRanges(
                 sequence,
-                allBestFittingSubsequences
+                allBestFittingSubsequences,
+                parallel
         );
 
-        final List<NumericRange<Integer>> ranges = new ArrayList<>();
-        final List<? extends Pair<List<T>, List<Integer>>> remainingPairs = new ArrayList<>(bestFittingPairs);
-        final List<Integer> remainingIndices = IntStream.range(0, sequence.size())
-                .boxed()
-                .collect(toList());
-
-        while (!remainingPairs.isEmpty()) {
-            final Pair<List<T>, List<Integer>> pair = Collections.max(
-                    remainingPairs,
-                    comparing(remainingPair -> remainingPair.getRight()
-                            .stream()
-                            .filter(remainingIndices::contains)
-                            .count()
-                    )
-            );
-            remainingPairs.remove(pair);
-
-            final List<Integer> matchingIndices = pair.getRight()
-                    .stream()
-                    .filter(remainingIndices::contains)
-                    .toList();
-
-            remainingIndices.removeAll(matchingIndices);
+        probe.candidates(bestFittingPairs.size());
 
-            ranges.addAll(NumericRange.groupSubsequentNumbers(matchingIndices));
-        }
-
-        final List<NumericRange<Integer>> unhandledRanges = NumericRange.groupSubsequentNumbers(remainingIndices);
+        final BitSet covered = new BitSet(sequence.size());
+        final List<NumericRange<Integer>> ranges = coverGreedily(bestFittingPairs, covered);
+        final List<NumericRange<Integer>> unhandledRanges = clearRanges(covered, sequence.size());
 
-        final List<NumericRange<Integer>> additionalRanges = unhandledRanges.stream()
-                .flatMap(range -> splitByMostLikelyPattern(sequence.subList(range.start(), range.end() + 1))
+        final List<NumericRange<Integer>> additionalRanges = parallelIf(parallel, unhandledRanges.stream())
+                .flatMap(range -> splitByMostLikelyPattern(sequence.subList(range.start(), range.end() + 1), parallel, probe, depth + 1)
                         .stream()
                         .map(refinedSplit -> NumericRange.of(
                                 range.start() + refinedSplit.start(),
@@ -182,131 +362,251 @@ public interface NumericPattern<T extends Number> {
                 .collect(toUnmodifiableSet());
     }
 
+    /**
+     * Repeatedly selects the pair which covers the most indices that are not covered yet (the first one on a tie),
+     * until no pair covers any new index.
+     * Uncovered counts only decrease, so a priority queue of (possibly outdated) counts suffices:
+     * a pair of which the count is still up-to-date when it is polled has the highest count of all pairs.
+     *
+     * @param covered updated with all indices of the selected pairs
+     * @return The newly covered indices of every selected pair, grouped into ranges.
+     */
+    private static <T extends Number> List<NumericRange<Integer>> coverGreedily(
+            final List<? extends Pair<List<T>, NumericRange<Integer>>> pairs,
+            final BitSet covered
+    ) {
+        final int[] starts = new int[pairs.size()];
+        final int[] ends = new int[pairs.size()];
+        final PriorityQueue<int[]> queue = new PriorityQueue<>(Math.max(1, pairs.size()), Comparator.<int[]>comparingInt(entry -> -entry[1])
+                .thenComparingInt(entry -> entry[0])
+        );
+
+        for (int i = 0; i < pairs.size(); i++) {
+            final NumericRange<Integer> range = pairs.get(i).getRight();
+            starts[i] = range.start();
+            ends[i] = range.end() + 1;
+            queue.add(new int[]{i, ends[i] - starts[i]});
+        }
+
+        final List<NumericRange<Integer>> ranges = new ArrayList<>();
+
+        while (!queue.isEmpty() && queue.peek()[1] > 0) {
+            final int[] entry = queue.poll();
+            final int i = entry[0];
+            final int uncovered = ends[i] - starts[i] - covered.get(starts[i], ends[i]).cardinality();
+
+            if (uncovered < entry[1]) {
+                queue.add(new int[]{i, uncovered});
+                continue;
+            }
+
+            for (int start = covered.nextClearBit(starts[i]); start < ends[i]; ) {
+                final int end = Math.min(ends[i], nextSetBit(covered, start));
+                ranges.add(NumericRange.of(start, end - 1));
+                start = covered.nextClearBit(end);
+            }
+
+            covered.set(starts[i], ends[i]);
+        }
+
+        return ranges;
+    }
+
+    /**
+     * @return All ranges of indices in {@code [0, size)} which are not set.
+     */
+    private static List<NumericRange<Integer>> clearRanges(
+            final BitSet bitSet,
+            final int size
+    ) {
+        final List<NumericRange<Integer>> ranges = new ArrayList<>();
+
+        for (int start = bitSet.nextClearBit(0); start < size; ) {
+            final int end = Math.min(size, nextSetBit(bitSet, start));
+            ranges.add(NumericRange.of(start, end - 1));
+            start = bitSet.nextClearBit(end);
+        }
+
+        return ranges;
+    }
+
+    private static int nextSetBit(
+            final BitSet bitSet,
+            final int from
+    ) {
+        final int next = bitSet.nextSetBit(from);
+
+        return next < 0 ? Integer.MAX_VALUE : next;
+    }
+
+    /**
+     * The longest repetition wins, then the longest possible repeatable subsequence, then the first one.
+     */
     static <T extends Number> Optional<? extends Pair<List<T>, List<Integer>>> findTheRepeatableSubsequenceWithTheLongestFittingRepetitionStartingFromLeft(
             @Unsorted final List<T> sequence,
             final Collection<List<T>> possibleRepeatableSubsequences
     ) {
-        return possibleRepeatableSubsequences.stream()
-                .flatMap(repeatableSubSequence -> IntStream.range(0, repeatableSubSequence.size())
-                        .mapToObj(shift -> IntStream.range(0, sequence.size())
-                                .takeWhile(index -> Objects.equals(sequence.get(index), repeatableSubSequence.get((index + shift) % repeatableSubSequence.size())))
-                                .boxed()
-                                .toList()
-                        )
-                        .filter(not(List::isEmpty))
-                        .max(comparingInt(List::size))
-                        .map(longestFittingSequence -> ImmutablePair.of(repeatableSubSequence, longestFittingSequence))
-                        .stream()
-                )
-                .max(Comparator.<Pair<List<T>, List<Integer>>, List<Integer>>comparing(Pair::getRight, comparingInt(List::size))
-                        .thenComparing(Pair::getLeft, comparingInt(List::size))
-                );
+        if (sequence.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final List<List<T>> candidates = List.copyOf(possibleRepeatableSubsequences);
+        final RepetitionMatcher.Matches matches = new RepetitionMatcher(sequence).longestRepetitions(candidates, false);
+
+        if (matches.lengths()[0] == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(ImmutablePair.of(
+                candidates.get(matches.candidates()[0]),
+                IntStream.range(0, matches.lengths()[0])
+                        .boxed()
+                        .toList()
+        ));
     }
 
     static <T extends Number> List<? extends Pair<List<T>, List<Integer>>> findAllFittingRepeatableSubsequencesWithTheirRepetitions(
             @Unsorted final List<T> sequence,
             final Collection<List<T>> possibleRepeatableSubsequences
     ) {
-        final List<? extends Pair<List<T>, List<Integer>>> longestFittingPairsForAllSubsequences = IntStream.range(0, sequence.size())
-                .mapToObj(fromIndex -> {
-                    final List<T> subsequence = sequence.subList(fromIndex, sequence.size());
-
-                    return findTheRepeatableSubsequenceWithTheLongestFittingRepetitionStartingFromLeft(subsequence, possibleRepeatableSubsequences)
-                            .map(fit -> ImmutablePair.of(
-                                    fit.getLeft(),
-                                    fit.getRight()
-                                            .stream()
-                                            .map(i -> fromIndex + i)
-                                            .toList()
-                            ));
-                })
-                .flatMap(Optional::stream)
+        return findAllFittingRepeatableSubsequencesWithTheirRanges(sequence, possibleRepeatableSubsequences)
+                .stream()
+                .map(fit -> ImmutablePair.of(
+                        fit.getLeft(),
+                        IntStream.rangeClosed(fit.getRight().start(), fit.getRight().end())
+                                .boxed()
+                                .toList()
+                ))
                 .toList();
+    }
 
-        return longestFittingPairsForAllSubsequences.stream()
-                .filter(pair1 -> longestFittingPairsForAllSubsequences.stream()
-                        .filter(pair2 -> pair1.getRight().size() < pair2.getRight().size())
-                        .noneMatch(pair2 -> indexOfSubList(pair2.getRight(), pair1.getRight()) > 0)
-                )
-                .toList();
+    /**
+     * For every start index, the longest repetition of any (rotated) possible repeatable subsequence which fits from there,
+     * unless it is contained in the repetition of an earlier start index.
+     *
+     * @return The fitting repeatable subsequences with the range of indices of their repetition, ordered by start.
+     */
+    static <T extends Number> List<? extends Pair<List<T>, NumericRange<Integer>>> findAllFittingRepeatableSubsequencesWithTheirRanges(
+            @Unsorted final List<T> sequence,
+            final Collection<List<T>> possibleRepeatableSubsequences
+    ) {
+        return findAllFittingRepeatableSubsequencesWithTheirRanges(sequence, possibleRepeatableSubsequences, false);
+    }
+
+    private static <T extends Number> List<? extends Pair<List<T>, NumericRange<Integer>>> findAllFittingRepeatableSubsequencesWithTheirRanges(
+            @Unsorted final List<T> sequence,
+            final Collection<List<T>> possibleRepeatableSubsequences,
+            final boolean parallel
+    ) {
+        final List<List<T>> candidates = List.copyOf(possibleRepeatableSubsequences);
+        final RepetitionMatcher.Matches matches = new RepetitionMatcher(sequence).longestRepetitions(candidates, parallel);
+        final int[] candidateIndices = matches.candidates();
+        final int[] lengths = matches.lengths();
+
+        // starts are distinct, so a repetition is contained in another one iff that one starts earlier and does not end earlier
+        final List<Pair<List<T>, NumericRange<Integer>>> fits = new ArrayList<>();
+        int maximumEnd = -1;
+
+        for (int start = 0; start < sequence.size(); start++) {
+            final int end = start + lengths[start] - 1;
+
+            if (lengths[start] > 0 && end > maximumEnd) {
+                fits.add(ImmutablePair.of(candidates.get(candidateIndices[start]), NumericRange.of(start, end)));
+                maximumEnd = end;
+            }
+        }
+
+        return fits;
+    }
+
+    private static <S> Stream<S> parallelIf(
+            final boolean parallel,
+            final Stream<S> stream
+    ) {
+        return parallel ? stream.parallel() : stream;
     }
 
     static <T extends Number> Set<List<T>> filterRepeatedSubsequences(
             @Unsorted final Collection<List<T>> sequences
     ) {
-        return sequences.stream()
-                .filter(sequence1 -> sequences.stream()
-                        .filter(sequence2 -> sequence2.size() > sequence1.size())
-                        .noneMatch(sequence2 -> indexOfSubList(sequence2, sequence1) >= 0)
-                )
+        final List<List<T>> candidates = List.copyOf(sequences);
+        final boolean[] containedInLonger = Containment.containedInLonger(candidates.stream()
+                .map(Longs::toArray)
+                .toList()
+        );
+
+        return IntStream.range(0, candidates.size())
+                .filter(i -> !containedInLonger[i])
+                .mapToObj(candidates::get)
                 .collect(toUnmodifiableSet());
     }
 
     static <T extends Number> Set<List<T>> findAllVariations(
             @Unsorted final List<T> sequence
     ) {
-        return IntStream.range(0, sequence.size())
-                .mapToObj(i -> IntStream.range(0, sequence.size())
-                        .mapToObj(j -> sequence.get((i + j) % sequence.size()))
-                        .toList()
-                )
+        return streamAllVariations(sequence)
+                .map(List::copyOf)
                 .collect(toUnmodifiableSet());
     }
 
-    static <T extends Number> List<T> findBaseVariation(
+    /**
+     * Streams every distinct rotation of the sequence exactly once, as a lazy view on the sequence.
+     */
+    static <T extends Number> Stream<List<T>> streamAllVariations(
             @Unsorted final List<T> sequence
     ) {
-        final Set<List<T>> allVariations = findAllVariations(sequence);
-
-        return allVariations.stream()
-                .min((s1, s2) -> {
-                    for (int i = 0; i < Math.min(s1.size(), s2.size()); i++) {
-                        final int comparison = Long.compare(s1.get(i).longValue(), s2.get(i).longValue());
+        return Rotations.distinctRotations(sequence, Longs.toArray(sequence));
+    }
 
-                        if (comparison != 0) {
-                            return comparison;
-                        }
-                    }
+    /**
+     * @return The lexicographically smallest rotation of the sequence, independent of the sequence.
+     */
+    static <T extends Number> List<T> findBaseVariation(
+            @Unsorted final List<T> sequence
+    ) {
+        if (sequence.isEmpty()) {
+            return emptyList();
+        }
 
-                    return 0;
-                })
-                .orElseGet(Collections::emptyList);
+        return List.copyOf(Rotations.rotate(sequence, Rotations.leastRotation(Longs.toArray(sequence))));
     }
 
+    /**
+     * @return A set view of all distinct non-empty subsequences, enumerated from a {@link SequenceIndex} instead of being hashed.
+     */
     static <T extends Number> Set<List<T>> findAllPossibleSubsequences(
             @Unsorted final List<T> sequence
     ) {
-        return IntStream.range(0, sequence.size())
-                .boxed()
-                .flatMap(i -> IntStream.range(i, sequence.size())
-                        .mapToObj(j -> sequence.subList(i, j + 1))
-                )
-                .collect(toUnmodifiableSet());
+        return SequenceIndex.of(sequence)
+                .distinctSubsequences();
     }
 
     static <T extends Number> Stream<List<T>> findAllRepeatingSubsequences(
             @Unsorted final List<T> sequence
     ) {
-        return IntStream.range(0, sequence.size())
-                .mapToObj(i -> sequence.subList(0, i + 1))
-                .filter(subsequence -> IntStream.range(0, sequence.size())
-                        .allMatch(i -> Objects.equals(
-                                sequence.get(i),
-                                subsequence.get(i % subsequence.size())
-                        ))
-                );
+        return Arrays.stream(Periods.allPeriods(Longs.toArray(sequence)))
+                .mapToObj(period -> sequence.subList(0, period));
     }
 
     static <T extends Number> List<T> findShortestRepeatingSubsequence(
             @Unsorted final List<T> sequence
     ) {
-        return findAllRepeatingSubsequences(sequence)
-                .findFirst()
-                .orElseGet(Collections::emptyList);
+        if (sequence.isEmpty()) {
+            return emptyList();
+        }
+
+        return sequence.subList(0, Periods.shortestPeriod(Longs.toArray(sequence)));
     }
 
     default Set<List<T>> findAllPossibleSubsequences() {
-        return findAllPossibleSubsequences(sequence());
+        return index().distinctSubsequences();
+    }
+
+    /**
+     * Builds a new {@link SequenceIndex} on every call, keep a reference to it when querying it more than once.
+     */
+    default SequenceIndex<T> index() {
+        return SequenceIndex.of(sequence());
     }
 
     List<T> sequence();
@@ -315,6 +615,13 @@ public interface NumericPattern<T extends Number> {
 
     List<? extends Pair<T, T>> findAllGaps();
 
+    /**
+     * @return The same gaps as {@link #findAllGaps()}, which are only found as the stream is consumed by patterns backed by a file.
+     */
+    default Stream<? extends Pair<T, T>> streamAllGaps() {
+        return findAllGaps().stream();
+    }
+
     default int size() {
         return sequence().size();
     }
@@ -337,6 +644,10 @@ public interface NumericPattern<T extends Number> {
                 .toList();
     }
 
+    /**
+     * Every difference between a later and an earlier element is an increment, also when it is zero or negative in an unsorted pattern.
+     * Only sorted patterns can stop at the first increment that is too large, see {@link SortedNumericPattern}.
+     */
     default Set<Long> findDistinctCombinatorialIncrements(
             final Number maxLength
     ) {
@@ -348,29 +659,59 @@ public interface NumericPattern<T extends Number> {
                 .boxed()
                 .flatMap(i -> IntStream.range(i + 1, size())
                         .mapToObj(j -> sequence().get(j).longValue() - sequence().get(i).longValue())
-                        .takeWhile(j -> j <= maxLength.longValue())
+                        .filter(j -> j <= maxLength.longValue())
                 )
                 .collect(toUnmodifiableSet());
     }
 
+    /**
+     * @return The same increments as {@link #findDistinctCombinatorialIncrements(Number)}, in ascending order.
+     */
+    default LongStream streamDistinctCombinatorialIncrements(
+            final Number maxLength
+    ) {
+        return findDistinctCombinatorialIncrements(maxLength)
+                .stream()
+                .mapToLong(Long::longValue)
+                .sorted();
+    }
+
     //boolean canBeCombinedWith(
     //        final NumericPattern<T> other
     //);
 
+    /**
+     * Patterns backed by primitive values are compared many values at once, see {@link LongArrayView#mismatch(LongArrayView)}.
+     */
     default boolean startsWithSameSubsequence(
             final NumericPattern<T> other
     ) {
-        return IntStream.range(0, Math.min(this.size(), other.size()))
+        final int length = Math.min(this.size(), other.size());
+
+        if (this.sequence() instanceof LongArrayView view && other.sequence() instanceof LongArrayView otherView) {
+            return view.subList(0, length).mismatch(otherView.subList(0, length)) < 0;
+        }
+
+        return IntStream.range(0, length)
                 .allMatch(i -> Objects.equals(
                         this.sequence().get(i),
                         other.sequence().get(i)
                 ));
     }
 
+    /**
+     * @see #startsWithSameSubsequence(NumericPattern)
+     */
     default boolean endsWithSameSubsequence(
             final NumericPattern<T> other
     ) {
-        return IntStream.rangeClosed(1, Math.min(this.size(), other.size()))
+        final int length = Math.min(this.size(), other.size());
+
+        if (this.sequence() instanceof LongArrayView view && other.sequence() instanceof LongArrayView otherView) {
+            return view.subList(view.size() - length, view.size()).mismatch(otherView.subList(otherView.size() - length, otherView.size())) < 0;
+        }
+
+        return IntStream.rangeClosed(1, length)
                 .allMatch(i -> Objects.equals(
                         this.sequence().get(this.size() - i),
                         other.sequence().get(other.size() - i)
@@ -396,9 +737,13 @@ public interface NumericPattern<T extends Number> {
     }
 
     default NumericPattern<Long> shortestRepeatingCycle() {
-        return allRepeatingCycles()
-                .findFirst()
-                .orElseGet(NumericPattern::empty);
+        final List<Long> deltas = deltas().sequence();
+
+        if (deltas.isEmpty()) {
+            return empty();
+        }
+
+        return unsorted(findShortestRepeatingSubsequence(deltas));
     }
 
 }
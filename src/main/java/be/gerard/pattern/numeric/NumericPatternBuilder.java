@@ -0,0 +1,72 @@
+package be.gerard.pattern.numeric;
+
+import be.gerard.pattern.numeric.internal.PatternAppender;
+
+/**
+ * Append-only builder, which keeps the deltas, their prefix function and thereby the shortest repeating cycle up to date.
+ * Every append is amortized O(1).
+ * <p>
+ * Snapshots share the underlying arrays with the builder, which only ever writes beyond the size of any snapshot,
+ * so building a snapshot is O(1) and snapshots remain immutable.
+ * The builder itself is not thread-safe.
+ */
+public final class NumericPatternBuilder {
+
+    private final PatternAppender appender = new PatternAppender();
+
+    NumericPatternBuilder() {
+        // use NumericPattern.builder()
+    }
+
+    public NumericPatternBuilder append(
+            final long value
+    ) {
+        appender.append(value);
+
+        return this;
+    }
+
+    public NumericPatternBuilder appendAll(
+            final long[] values
+    ) {
+        for (final long value : values) {
+            append(value);
+        }
+
+        return this;
+    }
+
+    public int size() {
+        return appender.size();
+    }
+
+    public boolean isSorted() {
+        return appender.isSorted();
+    }
+
+    /**
+     * @return The length of the shortest repeating cycle of the deltas, or 0 when there are less than 2 values.
+     */
+    public int shortestCycleLength() {
+        return appender.shortestCycleLength();
+    }
+
+    /**
+     * @return The same cycle as {@link NumericPattern#shortestRepeatingCycle()} on a snapshot, in O(1).
+     */
+    public NumericPattern<Long> shortestRepeatingCycle() {
+        return appender.shortestRepeatingCycle();
+    }
+
+    public NumericPattern<Long> deltas() {
+        return appender.deltas();
+    }
+
+    /**
+     * @return An immutable snapshot of all values appended so far, which is sorted when the values are strictly increasing.
+     */
+    public NumericPattern<Long> build() {
+        return appender.snapshot();
+    }
+
+}
@@ -0,0 +1,337 @@
+package be.gerard.pattern.numeric;
+
+import be.gerard.pattern.numeric.internal.Longs;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Opt-in memoization of the expensive analyses, for callers which analyze the same sequences repeatedly.
+ * <p>
+ * Entries are keyed by the content of the sequence (a 64-bit hash, confirmed by comparing the values), and optionally by its values relative to the first one,
+ * so that sequences which only differ by their start offset share their entry.
+ * Grouping common increments is always keyed by the values themselves, since it groups by their remainder, which depends on their sign.
+ * Results are kept as indices into the sequence and rebuilt from the elements of the sequence of every call,
+ * which keeps them correct for shifted sequences and for sequences of another {@link Number} type.
+ * <p>
+ * The cache holds entries up to a total weight, counted in values (those of the key and the indices of the result), and evicts the least recently used ones first.
+ * It is thread-safe: lookups are synchronized, while analyses run outside of the lock, so that concurrent misses for the same key may each compute it.
+ */
+public final class PatternAnalysisCache {
+
+    public enum Normalization {
+        NONE,
+        START_OFFSET
+    }
+
+    public record Statistics(
+            long hitCount,
+            long missCount,
+            long evictionCount,
+            int entryCount,
+            long weight
+    ) {
+
+        public double hitRate() {
+            final long requestCount = hitCount + missCount;
+
+            return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+        }
+
+    }
+
+    private enum Analysis {
+        SPLIT_BY_MOST_LIKELY_PATTERN,
+        FIND_ALL_BEST_FITTING_SUBSEQUENCES,
+        GROUP_COMMON_INCREMENTS
+    }
+
+    private final long maximumWeight;
+    private final Normalization normalization;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    private PatternAnalysisCache(
+            final long maximumWeight,
+            final Normalization normalization
+    ) {
+        this.maximumWeight = maximumWeight;
+        this.normalization = normalization;
+    }
+
+    public static PatternAnalysisCache of(
+            final long maximumWeight,
+            final Normalization normalization
+    ) {
+        isTrue(maximumWeight > 0, "the maximum weight must be positive");
+        notNull(normalization);
+
+        return new PatternAnalysisCache(maximumWeight, normalization);
+    }
+
+    /**
+     * @see NumericPattern#splitByMostLikelyPattern(List)
+     */
+    public <T extends Number> Set<NumericRange<Integer>> splitByMostLikelyPattern(
+            @Unsorted final List<T> sequence
+    ) {
+        notNull(sequence);
+
+        final Entry entry = entry(
+                new Key(Analysis.SPLIT_BY_MOST_LIKELY_PATTERN, 0, normalize(sequence)),
+                () -> {
+                    final Set<NumericRange<Integer>> ranges = NumericPattern.splitByMostLikelyPattern(sequence);
+
+                    return new Entry(ranges, 2L * ranges.size());
+                }
+        );
+
+        @SuppressWarnings("unchecked") final Set<NumericRange<Integer>> ranges = (Set<NumericRange<Integer>>) entry.result();
+
+        return ranges;
+    }
+
+    /**
+     * @see NumericPattern#findAllBestFittingSubsequences(List)
+     */
+    public <T extends Number> Set<List<T>> findAllBestFittingSubsequences(
+            @Unsorted final List<T> sequence
+    ) {
+        notNull(sequence);
+
+        final Entry entry = entry(
+                new Key(Analysis.FIND_ALL_BEST_FITTING_SUBSEQUENCES, 0, normalize(sequence)),
+                () -> {
+                    final Map<Long, Integer> indices = indices(sequence);
+                    final Set<int[]> subsequences = NumericPattern.findAllBestFittingSubsequences(sequence)
+                            .stream()
+                            .map(subsequence -> indicesOf(subsequence, indices))
+                            .collect(toUnmodifiableSet());
+
+                    return new Entry(subsequences, subsequences.stream().mapToLong(subsequence -> subsequence.length).sum());
+                }
+        );
+
+        @SuppressWarnings("unchecked") final Set<int[]> subsequences = (Set<int[]>) entry.result();
+
+        return subsequences.stream()
+                .map(subsequence -> elementsAt(sequence, subsequence))
+                .collect(toUnmodifiableSet());
+    }
+
+    /**
+     * @see SortedNumericPattern#groupCommonIncrements(Number)
+     */
+    public <T extends Number> Set<Fit<T>> groupCommonIncrements(
+            final SortedNumericPattern<T> pattern,
+            final Number maxIncrement
+    ) {
+        notNull(pattern);
+        notNull(maxIncrement);
+
+        final List<T> sequence = pattern.sequence();
+
+        final Entry entry = entry(
+                new Key(Analysis.GROUP_COMMON_INCREMENTS, maxIncrement.longValue(), Longs.toArray(sequence)),
+                () -> {
+                    final Map<Long, Integer> indices = indices(sequence);
+                    final Set<IndexedFit> fits = pattern.groupCommonIncrements(maxIncrement)
+                            .stream()
+                            .map(fit -> new IndexedFit(
+                                    fit instanceof Fit.Incremental<T> incremental ? incremental.increment() : 0,
+                                    indicesOf(fit.sequence(), indices)
+                            ))
+                            .collect(toUnmodifiableSet());
+
+                    return new Entry(fits, fits.stream().mapToLong(fit -> fit.indices().length).sum());
+                }
+        );
+
+        @SuppressWarnings("unchecked") final Set<IndexedFit> fits = (Set<IndexedFit>) entry.result();
+
+        return fits.stream()
+                .map(fit -> fit.increment() > 0
+                        ? Fit.incremental(elementsAt(sequence, fit.indices()), fit.increment())
+                        : Fit.<T>none(elementsAt(sequence, fit.indices())))
+                .collect(toUnmodifiableSet());
+    }
+
+    public Statistics statistics() {
+        synchronized (entries) {
+            return new Statistics(hitCount, missCount, evictionCount, entries.size(), weight);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    private Entry entry(
+            final Key key,
+            final Supplier<Entry> analysis
+    ) {
+        synchronized (entries) {
+            final Entry entry = entries.get(key);
+
+            if (entry != null) {
+                hitCount++;
+                return entry;
+            }
+
+            missCount++;
+        }
+
+        final Entry entry = analysis.get();
+        final long entryWeight = key.values().length + entry.weight();
+
+        if (entryWeight > maximumWeight) {
+            return entry;
+        }
+
+        synchronized (entries) {
+            final Entry previous = entries.put(key, new Entry(entry.result(), entryWeight));
+            weight += entryWeight - (previous == null ? 0 : previous.weight());
+
+            final Iterator<Entry> iterator = entries.values().iterator();
+
+            while (weight > maximumWeight) {
+                weight -= iterator.next().weight();
+                iterator.remove();
+                evictionCount++;
+            }
+        }
+
+        return entry;
+    }
+
+    private long[] normalize(
+            final List<? extends Number> sequence
+    ) {
+        final long[] values = Longs.toArray(sequence);
+
+        if (normalization == Normalization.START_OFFSET && values.length > 0) {
+            final long offset = values[0];
+
+            for (int i = 0; i < values.length; i++) {
+                values[i] -= offset;
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Every value of a result occurs in the sequence, and any of its occurrences shifts along with the sequence.
+     */
+    private static Map<Long, Integer> indices(
+            final List<? extends Number> sequence
+    ) {
+        final Map<Long, Integer> indices = new HashMap<>();
+
+        for (int i = 0; i < sequence.size(); i++) {
+            indices.putIfAbsent(Longs.get(sequence, i), i);
+        }
+
+        return indices;
+    }
+
+    private static int[] indicesOf(
+            final List<? extends Number> values,
+            final Map<Long, Integer> indices
+    ) {
+        return values.stream()
+                .mapToInt(value -> indices.get(value.longValue()))
+                .toArray();
+    }
+
+    private static <T extends Number> List<T> elementsAt(
+            final List<T> sequence,
+            final int[] indices
+    ) {
+        return Arrays.stream(indices)
+                .mapToObj(sequence::get)
+                .toList();
+    }
+
+    private record Key(
+            Analysis analysis,
+            long parameter,
+            long[] values,
+            long hash
+    ) {
+
+        private Key(
+                final Analysis analysis,
+                final long parameter,
+                final long[] values
+        ) {
+            this(analysis, parameter, values, hash(values));
+        }
+
+        /**
+         * Fibonacci hashing of every value in turn, of which the constant is 2^64 divided by the golden ratio.
+         */
+        private static long hash(
+                final long[] values
+        ) {
+            long hash = values.length;
+
+            for (final long value : values) {
+                hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+                hash ^= hash >>> 32;
+            }
+
+            return hash;
+        }
+
+        @Override
+        public boolean equals(
+                final Object other
+        ) {
+            return other instanceof Key key
+                    && hash == key.hash
+                    && analysis == key.analysis
+                    && parameter == key.parameter
+                    && Arrays.equals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+
+    }
+
+    private record Entry(
+            Object result,
+            long weight
+    ) {
+    }
+
+    /**
+     * An increment of 0 stands for {@link Fit.None}.
+     */
+    private record IndexedFit(
+            long increment,
+            int[] indices
+    ) {
+    }
+
+}
@@ -0,0 +1,552 @@
+package be.gerard.pattern.numeric;
+
+import be.gerard.pattern.numeric.internal.CycleView;
+import be.gerard.pattern.numeric.internal.LongArrayView;
+import be.gerard.pattern.numeric.internal.Longs;
+import be.gerard.pattern.numeric.internal.Periods;
+import be.gerard.pattern.numeric.internal.SequenceCyclic;
+import be.gerard.pattern.numeric.internal.SequenceSortedLong;
+import be.gerard.pattern.numeric.internal.SequenceUnsorted;
+import be.gerard.pattern.numeric.internal.Varints;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Compact binary encoding of patterns, fits and ranges, which are decoded with {@code Long} elements.
+ * <p>
+ * Every object starts with a tag byte. A sequence is encoded as its size and first value, followed by either all deltas,
+ * or only the deltas of its shortest repeating cycle, when they repeat (see {@link NumericPattern#shortestRepeatingCycle()}):
+ * the size then determines how often the cycle repeats.
+ * Cyclic patterns write their element count as size, which is {@link Long#MAX_VALUE} when they are unbounded,
+ * and sorted patterns of which the deltas repeat are decoded as cyclic patterns, without expanding the cycle.
+ * An incremental fit only needs its first value, size and increment.
+ * Unsorted sequences of which the deltas repeat and incremental fits are decoded as views, which compute their values when they are requested,
+ * and every other count is checked against the remaining bytes first, so that corrupt input can not allocate more than it could hold.
+ * All numbers are variable length encoded, and signed numbers (values and deltas) are zigzag encoded first.
+ * <p>
+ * Encoding writes directly into a {@link ByteBuffer}, or through a small buffer into a {@link WritableByteChannel}.
+ */
+public final class PatternCodec {
+
+    static final int CHANNEL_BUFFER_SIZE = 8192;
+
+    private static final byte EMPTY = 0;
+    private static final byte SORTED = 1;
+    private static final byte UNSORTED = 2;
+    private static final byte SEQUENTIAL = 3;
+    private static final byte INCREMENTAL = 4;
+    private static final byte NONE = 5;
+    private static final byte RANGE = 6;
+
+    private static final byte DELTAS = 0;
+    private static final byte CYCLE = 1;
+
+    private PatternCodec() {
+        // no-op
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException when the buffer is too small.
+     */
+    public static void encode(
+            final NumericPattern<?> pattern,
+            final ByteBuffer buffer
+    ) {
+        notNull(pattern);
+
+        encodePattern(new Output(buffer, null), pattern);
+    }
+
+    public static void encode(
+            final Fit<?> fit,
+            final ByteBuffer buffer
+    ) {
+        notNull(fit);
+
+        encodeFit(new Output(buffer, null), fit);
+    }
+
+    public static void encode(
+            final NumericRange<?> range,
+            final ByteBuffer buffer
+    ) {
+        notNull(range);
+
+        encodeRange(new Output(buffer, null), range);
+    }
+
+    public static void encodeFits(
+            final Collection<? extends Fit<?>> fits,
+            final ByteBuffer buffer
+    ) {
+        notNull(fits);
+
+        encodeFits(new Output(buffer, null), fits);
+    }
+
+    public static void write(
+            final NumericPattern<?> pattern,
+            final WritableByteChannel channel
+    ) throws IOException {
+        notNull(pattern);
+
+        writeTo(channel, output -> encodePattern(output, pattern));
+    }
+
+    public static void write(
+            final Fit<?> fit,
+            final WritableByteChannel channel
+    ) throws IOException {
+        notNull(fit);
+
+        writeTo(channel, output -> encodeFit(output, fit));
+    }
+
+    public static void write(
+            final NumericRange<?> range,
+            final WritableByteChannel channel
+    ) throws IOException {
+        notNull(range);
+
+        writeTo(channel, output -> encodeRange(output, range));
+    }
+
+    public static void writeFits(
+            final Collection<? extends Fit<?>> fits,
+            final WritableByteChannel channel
+    ) throws IOException {
+        notNull(fits);
+
+        writeTo(channel, output -> encodeFits(output, fits));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the input is malformed, or announces more numbers than the buffer holds.
+     * @throws java.nio.BufferUnderflowException when the buffer ends within the pattern otherwise.
+     */
+    public static NumericPattern<Long> decodePattern(
+            final ByteBuffer buffer
+    ) {
+        final byte tag = buffer.get();
+
+        isTrue(tag == EMPTY || tag == SORTED || tag == UNSORTED, "%d is not a pattern", tag);
+
+        if (tag == EMPTY) {
+            return NumericPattern.empty();
+        }
+
+        if (tag == SORTED) {
+            return decodeSorted(buffer);
+        }
+
+        return new SequenceUnsorted<>(decodeSequence(buffer));
+    }
+
+    public static Fit<Long> decodeFit(
+            final ByteBuffer buffer
+    ) {
+        final byte tag = buffer.get();
+
+        isTrue(tag == SEQUENTIAL || tag == INCREMENTAL || tag == NONE, "%d is not a fit", tag);
+
+        if (tag == SEQUENTIAL) {
+            final List<Long> sequence = decodeSequence(buffer);
+            final List<Long> subsequence = decodeSequence(buffer);
+
+            return Fit.sequential(sequence, subsequence);
+        }
+
+        if (tag == INCREMENTAL) {
+            final long first = Varints.readSigned(buffer);
+            final int size = decodeSize(buffer);
+            final long increment = Varints.readUnsigned(buffer);
+
+            isTrue(size > 0, "sequence is empty");
+
+            return Fit.incremental(CycleView.of(first, new long[]{increment}, size), increment);
+        }
+
+        return Fit.none(decodeSequence(buffer));
+    }
+
+    public static NumericRange<Long> decodeRange(
+            final ByteBuffer buffer
+    ) {
+        final byte tag = buffer.get();
+
+        isTrue(tag == RANGE, "%d is not a range", tag);
+
+        final long start = Varints.readSigned(buffer);
+
+        return NumericRange.of(start, start + Varints.readUnsigned(buffer));
+    }
+
+    public static Set<Fit<Long>> decodeFits(
+            final ByteBuffer buffer
+    ) {
+        final int size = decodeSize(buffer);
+        final Set<Fit<Long>> fits = new HashSet<>();
+
+        for (int i = 0; i < size; i++) {
+            fits.add(decodeFit(buffer));
+        }
+
+        return Set.copyOf(fits);
+    }
+
+    private static void writeTo(
+            final WritableByteChannel channel,
+            final Consumer<Output> encoder
+    ) throws IOException {
+        notNull(channel);
+
+        final Output output = new Output(ByteBuffer.allocate(CHANNEL_BUFFER_SIZE), channel);
+
+        try {
+            encoder.accept(output);
+            output.flush();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void encodePattern(
+            final Output output,
+            final NumericPattern<?> pattern
+    ) {
+        if (pattern.size() == 0) {
+            output.writeTag(EMPTY);
+            return;
+        }
+
+        output.writeTag(pattern.isSorted() ? SORTED : UNSORTED);
+
+        if (pattern instanceof SequenceCyclic cyclic) {
+            encodeCyclic(output, cyclic);
+        } else {
+            encodeSequence(output, pattern.sequence());
+        }
+    }
+
+    /**
+     * Writes the cycle as is, without deriving (all) the increments.
+     */
+    private static void encodeCyclic(
+            final Output output,
+            final SequenceCyclic cyclic
+    ) {
+        final long elementCount = cyclic.elementCount();
+
+        output.writeUnsigned(elementCount);
+        output.writeSigned(cyclic.start());
+
+        if (elementCount == 1) {
+            return;
+        }
+
+        final int cycleLength = (int) Math.min(elementCount - 1, cyclic.offsets().length);
+        final int incrementCount = (int) Math.min(elementCount - 1, Integer.MAX_VALUE);
+
+        encodeIncrements(output, Longs.toArray(cyclic.intervals().subList(0, cycleLength)), cycleLength, incrementCount);
+    }
+
+    private static void encodeFit(
+            final Output output,
+            final Fit<?> fit
+    ) {
+        if (fit instanceof Fit.Sequential<?> sequential) {
+            output.writeTag(SEQUENTIAL);
+            encodeSequence(output, sequential.sequence());
+            encodeSequence(output, sequential.subsequence());
+        } else if (fit instanceof Fit.Incremental<?> incremental) {
+            output.writeTag(INCREMENTAL);
+            output.writeSigned(Longs.get(incremental.sequence(), 0));
+            output.writeUnsigned(incremental.sequence().size());
+            output.writeUnsigned(incremental.increment());
+        } else {
+            output.writeTag(NONE);
+            encodeSequence(output, fit.sequence());
+        }
+    }
+
+    private static void encodeRange(
+            final Output output,
+            final NumericRange<?> range
+    ) {
+        final long start = range.start().longValue();
+
+        output.writeTag(RANGE);
+        output.writeSigned(start);
+        output.writeUnsigned(range.end().longValue() - start);
+    }
+
+    private static void encodeFits(
+            final Output output,
+            final Collection<? extends Fit<?>> fits
+    ) {
+        output.writeUnsigned(fits.size());
+
+        for (final Fit<?> fit : fits) {
+            encodeFit(output, fit);
+        }
+    }
+
+    /**
+     * The shortest repeating cycle is found with the prefix function of the deltas, in O(n).
+     */
+    private static void encodeSequence(
+            final Output output,
+            final List<? extends Number> sequence
+    ) {
+        final int size = sequence.size();
+
+        output.writeUnsigned(size);
+        output.writeSigned(Longs.get(sequence, 0));
+
+        if (size == 1) {
+            return;
+        }
+
+        final long[] deltas = new long[size - 1];
+
+        for (int i = 1; i < size; i++) {
+            deltas[i - 1] = Longs.get(sequence, i) - Longs.get(sequence, i - 1);
+        }
+
+        encodeIncrements(output, deltas, Periods.shortestPeriod(deltas), deltas.length);
+    }
+
+    /**
+     * @param incrementCount The number of increments in the sequence, which repeat the first {@code cycleLength} increments.
+     */
+    private static void encodeIncrements(
+            final Output output,
+            final long[] increments,
+            final int cycleLength,
+            final int incrementCount
+    ) {
+        if (cycleLength < incrementCount) {
+            output.writeTag(CYCLE);
+            output.writeUnsigned(cycleLength);
+        } else {
+            output.writeTag(DELTAS);
+        }
+
+        for (int i = 0; i < cycleLength; i++) {
+            output.writeSigned(increments[i]);
+        }
+    }
+
+    private static SortedNumericPattern<Long> decodeSorted(
+            final ByteBuffer buffer
+    ) {
+        final long elementCount = Varints.readUnsigned(buffer);
+
+        isTrue(elementCount > 0, "sequence is empty");
+
+        final long first = Varints.readSigned(buffer);
+
+        if (elementCount == 1) {
+            return SequenceSortedLong.ofSorted(new long[]{first}, 1);
+        }
+
+        final byte mode = decodeMode(buffer);
+
+        if (mode == CYCLE) {
+            return decodeCyclic(buffer, first, elementCount);
+        }
+
+        isTrue(elementCount <= Integer.MAX_VALUE, "%d is not a size", elementCount);
+
+        final long[] values = decodeDeltas(buffer, first, (int) elementCount);
+
+        return SequenceSortedLong.ofSorted(values, values.length);
+    }
+
+    private static SequenceCyclic decodeCyclic(
+            final ByteBuffer buffer,
+            final long start,
+            final long elementCount
+    ) {
+        final int cycleLength = decodeSize(buffer);
+
+        isTrue(0 < cycleLength && cycleLength <= elementCount - 1, "cycle of %d deltas in a sequence of %d", cycleLength, elementCount);
+        requireRemaining(buffer, cycleLength);
+
+        final long[] offsets = new long[cycleLength];
+        long offset = 0;
+
+        for (int i = 0; i < cycleLength; i++) {
+            final long increment = Varints.readSigned(buffer);
+
+            isTrue(0 < increment, "sorted pattern is not strictly increasing");
+            isTrue(offset <= Long.MAX_VALUE - increment, "the cycle is longer than %d", Long.MAX_VALUE);
+
+            offsets[i] = offset;
+            offset += increment;
+        }
+
+        return new SequenceCyclic(start, offsets, offset, elementCount);
+    }
+
+    /**
+     * @return A view of the values, which are only computed when they are requested when the deltas repeat a cycle.
+     */
+    private static List<Long> decodeSequence(
+            final ByteBuffer buffer
+    ) {
+        final int size = decodeSize(buffer);
+
+        isTrue(size > 0, "sequence is empty");
+
+        final long first = Varints.readSigned(buffer);
+
+        if (size == 1) {
+            return LongArrayView.of(new long[]{first});
+        }
+
+        if (decodeMode(buffer) == CYCLE) {
+            return CycleView.of(first, decodeCycle(buffer, size), size);
+        }
+
+        return LongArrayView.of(decodeDeltas(buffer, first, size));
+    }
+
+    private static byte decodeMode(
+            final ByteBuffer buffer
+    ) {
+        final byte mode = buffer.get();
+
+        isTrue(mode == DELTAS || mode == CYCLE, "%d is not a sequence encoding", mode);
+
+        return mode;
+    }
+
+    private static long[] decodeDeltas(
+            final ByteBuffer buffer,
+            final long first,
+            final int size
+    ) {
+        requireRemaining(buffer, size - 1);
+
+        final long[] values = new long[size];
+        values[0] = first;
+
+        for (int i = 1; i < size; i++) {
+            values[i] = values[i - 1] + Varints.readSigned(buffer);
+        }
+
+        return values;
+    }
+
+    private static long[] decodeCycle(
+            final ByteBuffer buffer,
+            final int size
+    ) {
+        final int cycleLength = decodeSize(buffer);
+
+        isTrue(0 < cycleLength && cycleLength <= size - 1, "cycle of %d deltas in a sequence of %d", cycleLength, size);
+        requireRemaining(buffer, cycleLength);
+
+        final long[] cycle = new long[cycleLength];
+
+        for (int i = 0; i < cycleLength; i++) {
+            cycle[i] = Varints.readSigned(buffer);
+        }
+
+        return cycle;
+    }
+
+    /**
+     * Every number takes at least one byte, so a corrupt count is rejected before anything is allocated for it.
+     */
+    private static void requireRemaining(
+            final ByteBuffer buffer,
+            final int count
+    ) {
+        isTrue(count <= buffer.remaining(), "%d numbers can not be read from %d bytes", count, buffer.remaining());
+    }
+
+    private static int decodeSize(
+            final ByteBuffer buffer
+    ) {
+        final long size = Varints.readUnsigned(buffer);
+
+        isTrue(0 <= size && size <= Integer.MAX_VALUE, "%d is not a size", size);
+
+        return (int) size;
+    }
+
+    /**
+     * Writes into the buffer, which is flushed into the channel (if any) whenever a number might not fit anymore.
+     */
+    private static final class Output {
+
+        private final ByteBuffer buffer;
+        private final WritableByteChannel channel;
+
+        private Output(
+                final ByteBuffer buffer,
+                final WritableByteChannel channel
+        ) {
+            this.buffer = notNull(buffer);
+            this.channel = channel;
+        }
+
+        private void writeTag(
+                final byte tag
+        ) {
+            ensureRemaining(1);
+            buffer.put(tag);
+        }
+
+        private void writeUnsigned(
+                final long value
+        ) {
+            ensureRemaining(Varints.MAXIMUM_LENGTH);
+            Varints.writeUnsigned(buffer, value);
+        }
+
+        private void writeSigned(
+                final long value
+        ) {
+            ensureRemaining(Varints.MAXIMUM_LENGTH);
+            Varints.writeSigned(buffer, value);
+        }
+
+        private void ensureRemaining(
+                final int byteCount
+        ) {
+            if (channel != null && buffer.remaining() < byteCount) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            buffer.flip();
+
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            buffer.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package be.gerard.pattern.numeric;
+
+import be.gerard.pattern.numeric.internal.CompressedTrie;
+import be.gerard.pattern.numeric.internal.Longs;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.apache.commons.lang3.Validate.noNullElements;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Index over a corpus of patterns, to find the patterns which share a prefix or a suffix with another pattern without comparing it to every one of them.
+ * <p>
+ * The patterns are kept in a compressed trie over their keys, and in a second one over their reversed keys for suffixes,
+ * after which a query takes O(m log s) for a pattern of m keys and s branches per node, plus the number of patterns it returns.
+ * The keys are either the values, or the deltas between them, so that patterns which only differ by an offset share their prefixes.
+ * Lengths are expressed in keys: a common prefix of {@code k} deltas is a common prefix of {@code k + 1} values, up to the offset.
+ * <p>
+ * The index is immutable, build it once and reuse it for all queries on the same corpus.
+ */
+public final class PatternCorpus<T extends Number> {
+
+    public enum Key {
+        VALUES,
+        DELTAS
+    }
+
+    private final List<NumericPattern<T>> patterns;
+    private final Key key;
+    private final CompressedTrie prefixes;
+    private final CompressedTrie suffixes;
+
+    private PatternCorpus(
+            final List<NumericPattern<T>> patterns,
+            final Key key
+    ) {
+        final long[][] keys = patterns.stream()
+                .map(pattern -> keys(pattern, key))
+                .toArray(long[][]::new);
+
+        this.patterns = patterns;
+        this.key = key;
+        this.prefixes = CompressedTrie.of(keys);
+        this.suffixes = CompressedTrie.of(reverse(keys));
+    }
+
+    public static <T extends Number> PatternCorpus<T> of(
+            final List<? extends NumericPattern<T>> patterns
+    ) {
+        return of(patterns, Key.VALUES);
+    }
+
+    public static <T extends Number> PatternCorpus<T> of(
+            final List<? extends NumericPattern<T>> patterns,
+            final Key key
+    ) {
+        noNullElements(patterns);
+        notNull(key);
+
+        return new PatternCorpus<>(List.copyOf(patterns), key);
+    }
+
+    private static long[] keys(
+            final NumericPattern<? extends Number> pattern,
+            final Key key
+    ) {
+        final long[] values = Longs.toArray(pattern.sequence());
+
+        return switch (key) {
+            case VALUES -> values;
+            case DELTAS -> Longs.deltas(values, values.length);
+        };
+    }
+
+    private static long[][] reverse(
+            final long[][] keys
+    ) {
+        final long[][] reversedKeys = new long[keys.length][];
+
+        for (int i = 0; i < keys.length; i++) {
+            reversedKeys[i] = reverse(keys[i]);
+        }
+
+        return reversedKeys;
+    }
+
+    private static long[] reverse(
+            final long[] keys
+    ) {
+        final long[] reversedKeys = new long[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            reversedKeys[keys.length - 1 - i] = keys[i];
+        }
+
+        return reversedKeys;
+    }
+
+    /**
+     * @return The patterns, of which the queries return the indices.
+     */
+    public List<NumericPattern<T>> patterns() {
+        return patterns;
+    }
+
+    public Key key() {
+        return key;
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * @return The length, in keys, of the longest prefix which the pattern shares with any pattern of the corpus.
+     */
+    public int longestCommonPrefix(
+            final NumericPattern<? extends Number> pattern
+    ) {
+        notNull(pattern);
+
+        return prefixes.longestCommonPrefix(keys(pattern, key));
+    }
+
+    /**
+     * @return The length, in keys, of the longest suffix which the pattern shares with any pattern of the corpus.
+     */
+    public int longestCommonSuffix(
+            final NumericPattern<? extends Number> pattern
+    ) {
+        notNull(pattern);
+
+        return suffixes.longestCommonPrefix(reverse(keys(pattern, key)));
+    }
+
+    /**
+     * @return The indices of all patterns which share a prefix of at least {@code length} keys with the pattern, in ascending order.
+     */
+    public IntStream sharingPrefix(
+            final NumericPattern<? extends Number> pattern,
+            final int length
+    ) {
+        notNull(pattern);
+
+        return prefixes.withCommonPrefix(keys(pattern, key), length);
+    }
+
+    /**
+     * @return The indices of all patterns which share a suffix of at least {@code length} keys with the pattern, in ascending order.
+     */
+    public IntStream sharingSuffix(
+            final NumericPattern<? extends Number> pattern,
+            final int length
+    ) {
+        notNull(pattern);
+
+        return suffixes.withCommonPrefix(reverse(keys(pattern, key)), length);
+    }
+
+}
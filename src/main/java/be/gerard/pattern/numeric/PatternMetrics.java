@@ -0,0 +1,74 @@
+package be.gerard.pattern.numeric;
+
+import be.gerard.pattern.numeric.internal.AnalysisProbe;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Receives the counters and timers of the analyses, to forward them to a metrics library.
+ * <p>
+ * The metrics are either provided through a {@link java.util.ServiceLoader} (the first provider found is used), or installed programmatically.
+ * As long as {@link #NONE} is installed and the flight recorder events are disabled, the analyses measure nothing at all.
+ * Implementations are called from any thread that runs an analysis, once it completes, so they must be thread-safe and cheap.
+ */
+public interface PatternMetrics {
+
+    PatternMetrics NONE = new PatternMetrics() {
+
+        @Override
+        public void count(
+                final Analysis analysis,
+                final Counter counter,
+                final long amount
+        ) {
+            // no-op
+        }
+
+        @Override
+        public void time(
+                final Analysis analysis,
+                final long durationNanos
+        ) {
+            // no-op
+        }
+
+    };
+
+    /**
+     * The public analyses, of which those called by another one are reported as well.
+     */
+    enum Analysis {
+        SPLIT_BY_MOST_LIKELY_PATTERN,
+        FIND_ALL_BEST_FITTING_SUBSEQUENCES,
+        FIND_ALL_RUNS,
+        FIND_ALL_NON_REPEATABLE_PARTIAL_FITS,
+        FIND_ALL_PARTIAL_FITS,
+        GROUP_COMMON_INCREMENTS,
+        GROUP_CYCLES
+    }
+
+    enum Counter {
+        INPUT_VALUES,
+        CANDIDATE_SUBSEQUENCES
+    }
+
+    static PatternMetrics installed() {
+        return AnalysisProbe.metrics();
+    }
+
+    /**
+     * Replaces the metrics which are installed, install {@link #NONE} to disable them.
+     */
+    static void install(
+            final PatternMetrics metrics
+    ) {
+        notNull(metrics);
+
+        AnalysisProbe.metrics(metrics);
+    }
+
+    void count(Analysis analysis, Counter counter, long amount);
+
+    void time(Analysis analysis, long durationNanos);
+
+}
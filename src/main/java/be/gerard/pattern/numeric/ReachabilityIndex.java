@@ -0,0 +1,252 @@
+package be.gerard.pattern.numeric;
+
+import be.gerard.pattern.numeric.internal.Longs;
+import be.gerard.pattern.numeric.internal.Periods;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.OptionalLong;
+import java.util.stream.LongStream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Precomputed reachability of a sorted pattern, which is repeated infinitely in both directions by its shortest repeating cycle.
+ * <p>
+ * A number is reachable when its offset from the first element, modulo the length of the cycle, is one of the offsets within the cycle.
+ * Building the index is O(n), after which every query is O(1) (cycles up to {@value #MAXIMUM_BITMAP_CYCLE_LENGTH}) or O(log k), for a cycle of k increments.
+ */
+public final class ReachabilityIndex {
+
+    static final int MAXIMUM_BITMAP_CYCLE_LENGTH = 1 << 20;
+
+    private static final ReachabilityIndex UNREACHABLE = new ReachabilityIndex(0, 0, new long[0]);
+
+    private final long origin;
+    private final long cycleLength;
+    private final long[] offsets;
+    private final BitSet residues;
+
+    private ReachabilityIndex(
+            final long origin,
+            final long cycleLength,
+            final long[] offsets
+    ) {
+        this.origin = origin;
+        this.cycleLength = cycleLength;
+        this.offsets = offsets;
+        this.residues = 0 < cycleLength && cycleLength <= MAXIMUM_BITMAP_CYCLE_LENGTH ? toBitSet(offsets) : null;
+    }
+
+    private static BitSet toBitSet(
+            final long[] offsets
+    ) {
+        final BitSet bitSet = new BitSet();
+
+        for (final long offset : offsets) {
+            bitSet.set((int) offset);
+        }
+
+        return bitSet;
+    }
+
+    public static ReachabilityIndex of(
+            @Sorted final SortedNumericPattern<?> pattern
+    ) {
+        notNull(pattern);
+
+        if (pattern.size() == 0) {
+            return UNREACHABLE;
+        }
+
+        final long[] values = Longs.toArray(pattern.sequence());
+
+        if (values.length == 1) {
+            return new ReachabilityIndex(values[0], 0, new long[1]);
+        }
+
+        final long[] deltas = Longs.deltas(values, values.length);
+
+        return ofCycle(values[0], Arrays.copyOf(deltas, Periods.shortestPeriod(deltas)));
+    }
+
+    /**
+     * @param cycle The (positive) increments of a cycle, which is repeated infinitely in both directions from {@code origin}.
+     */
+    public static ReachabilityIndex ofCycle(
+            final long origin,
+            final long[] cycle
+    ) {
+        notNull(cycle);
+        isTrue(cycle.length > 0);
+        isTrue(Arrays.stream(cycle).allMatch(increment -> increment > 0));
+
+        final long[] offsets = new long[cycle.length];
+
+        for (int i = 1; i < cycle.length; i++) {
+            offsets[i] = offsets[i - 1] + cycle[i - 1];
+        }
+
+        return new ReachabilityIndex(origin, offsets[cycle.length - 1] + cycle[cycle.length - 1], offsets);
+    }
+
+    /**
+     * @return The sum of the increments in the shortest repeating cycle, or 0 when the pattern does not repeat.
+     */
+    public long cycleLength() {
+        return cycleLength;
+    }
+
+    public boolean canReach(
+            final long number
+    ) {
+        if (offsets.length == 0) {
+            return false;
+        }
+
+        if (cycleLength == 0) {
+            return number == origin;
+        }
+
+        final long residue = Math.floorMod(number - origin, cycleLength);
+
+        if (residues != null) {
+            return residues.get((int) residue);
+        }
+
+        return Arrays.binarySearch(offsets, residue) >= 0;
+    }
+
+    public boolean[] canReach(
+            final long[] numbers
+    ) {
+        final boolean[] reachable = new boolean[numbers.length];
+
+        for (int i = 0; i < numbers.length; i++) {
+            reachable[i] = canReach(numbers[i]);
+        }
+
+        return reachable;
+    }
+
+    /**
+     * @return The smallest reachable number that is greater than or equal to {@code number}.
+     */
+    public OptionalLong nextReachable(
+            final long number
+    ) {
+        if (offsets.length == 0) {
+            return OptionalLong.empty();
+        }
+
+        if (cycleLength == 0) {
+            return origin >= number ? OptionalLong.of(origin) : OptionalLong.empty();
+        }
+
+        final long residue = Math.floorMod(number - origin, cycleLength);
+        final long startOfCycle = number - residue;
+        final int index = insertionIndex(residue);
+
+        return index < offsets.length
+                ? OptionalLong.of(startOfCycle + offsets[index])
+                : OptionalLong.of(startOfCycle + cycleLength + offsets[0]);
+    }
+
+    /**
+     * @return The largest reachable number that is less than or equal to {@code number}.
+     */
+    public OptionalLong previousReachable(
+            final long number
+    ) {
+        if (offsets.length == 0) {
+            return OptionalLong.empty();
+        }
+
+        if (cycleLength == 0) {
+            return origin <= number ? OptionalLong.of(origin) : OptionalLong.empty();
+        }
+
+        final long residue = Math.floorMod(number - origin, cycleLength);
+        final long startOfCycle = number - residue;
+        final int index = Arrays.binarySearch(offsets, residue);
+
+        if (index >= 0) {
+            return OptionalLong.of(number);
+        }
+
+        final int previousIndex = -index - 2;
+
+        return previousIndex >= 0
+                ? OptionalLong.of(startOfCycle + offsets[previousIndex])
+                : OptionalLong.of(startOfCycle - cycleLength + offsets[offsets.length - 1]);
+    }
+
+    /**
+     * @return The index of the first offset that is greater than or equal to {@code residue}.
+     */
+    private int insertionIndex(
+            final long residue
+    ) {
+        final int index = Arrays.binarySearch(offsets, residue);
+
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return All reachable numbers in {@code [from, to)}, in ascending order.
+     */
+    public LongStream reachable(
+            final long from,
+            final long to
+    ) {
+        final OptionalLong first = nextReachable(from);
+
+        if (first.isEmpty() || first.getAsLong() >= to) {
+            return LongStream.empty();
+        }
+
+        return LongStream.iterate(
+                first.getAsLong(),
+                number -> number < to,
+                number -> nextReachable(number + 1).orElse(to)
+        );
+    }
+
+    /**
+     * @return A bitmap of the reachable numbers in {@code [from, to)}, in which bit {@code i} represents {@code from + i}.
+     */
+    public BitSet reachableBetween(
+            final long from,
+            final long to
+    ) {
+        isTrue(from <= to && to - from <= Integer.MAX_VALUE);
+
+        final BitSet reachable = new BitSet((int) (to - from));
+
+        if (offsets.length == 0) {
+            return reachable;
+        }
+
+        if (cycleLength == 0) {
+            if (from <= origin && origin < to) {
+                reachable.set((int) (origin - from));
+            }
+
+            return reachable;
+        }
+
+        for (long startOfCycle = from - Math.floorMod(from - origin, cycleLength); startOfCycle < to; startOfCycle += cycleLength) {
+            for (final long offset : offsets) {
+                final long number = startOfCycle + offset;
+
+                if (from <= number && number < to) {
+                    reachable.set((int) (number - from));
+                }
+            }
+        }
+
+        return reachable;
+    }
+
+}
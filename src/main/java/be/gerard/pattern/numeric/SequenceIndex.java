@@ -0,0 +1,218 @@
+package be.gerard.pattern.numeric;
+
+import be.gerard.pattern.numeric.internal.Longs;
+import be.gerard.pattern.numeric.internal.SuffixArrays;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Spliterator.DISTINCT;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Suffix array and LCP array over the values of a sequence.
+ * <p>
+ * Building the index is O(n log n), after which substring queries no longer have to scan the sequence.
+ * The index is immutable, build it once and reuse it for all queries on the same sequence.
+ */
+public final class SequenceIndex<T extends Number> {
+
+    private final List<T> sequence;
+    private final long[] alphabet;
+    private final int[] text;
+    private final int[] suffixArray;
+    private final int[] longestCommonPrefixes;
+
+    private SequenceIndex(
+            final List<T> sequence
+    ) {
+        final long[] values = Longs.toArray(sequence);
+
+        this.sequence = sequence;
+        this.alphabet = Longs.sortedDistinct(values);
+        this.text = SuffixArrays.ranks(values, alphabet);
+        this.suffixArray = SuffixArrays.suffixArray(text, alphabet.length);
+        this.longestCommonPrefixes = SuffixArrays.longestCommonPrefixes(text, suffixArray);
+    }
+
+    public static <T extends Number> SequenceIndex<T> of(
+            @Unsorted final List<T> sequence
+    ) {
+        notNull(sequence);
+
+        return new SequenceIndex<>(sequence);
+    }
+
+    public List<T> sequence() {
+        return sequence;
+    }
+
+    public int size() {
+        return text.length;
+    }
+
+    public boolean contains(
+            @Unsorted final List<? extends Number> subsequence
+    ) {
+        return countOccurrences(subsequence) > 0;
+    }
+
+    public int countOccurrences(
+            @Unsorted final List<? extends Number> subsequence
+    ) {
+        if (subsequence.isEmpty()) {
+            return size() + 1;
+        }
+
+        final int[] pattern = toPattern(subsequence);
+
+        if (pattern.length == 0) {
+            return 0;
+        }
+
+        return SuffixArrays.bound(text, suffixArray, pattern, true) - SuffixArrays.bound(text, suffixArray, pattern, false);
+    }
+
+    /**
+     * @return All positions at which {@code subsequence} starts, in ascending order.
+     */
+    public IntStream occurrences(
+            @Unsorted final List<? extends Number> subsequence
+    ) {
+        if (subsequence.isEmpty()) {
+            return IntStream.rangeClosed(0, size());
+        }
+
+        final int[] pattern = toPattern(subsequence);
+
+        if (pattern.length == 0) {
+            return IntStream.empty();
+        }
+
+        final int from = SuffixArrays.bound(text, suffixArray, pattern, false);
+        final int to = SuffixArrays.bound(text, suffixArray, pattern, true);
+
+        return IntStream.range(from, to)
+                .map(i -> suffixArray[i])
+                .sorted();
+    }
+
+    /**
+     * @return The first position at which {@code subsequence} starts, or -1 (like {@link java.util.Collections#indexOfSubList(List, List)}).
+     */
+    public int indexOf(
+            @Unsorted final List<? extends Number> subsequence
+    ) {
+        return occurrences(subsequence)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    public long countDistinctSubsequences() {
+        long count = 0;
+
+        for (int i = 0; i < suffixArray.length; i++) {
+            count += size() - suffixArray[i] - longestCommonPrefixes[i];
+        }
+
+        return count;
+    }
+
+    /**
+     * Streams every distinct non-empty subsequence exactly once, as a view on the sequence.
+     * The subsequences are streamed in lexicographical order (of their values).
+     */
+    public Stream<List<T>> streamDistinctSubsequences() {
+        return StreamSupport.stream(
+                spliteratorUnknownSize(new DistinctSubsequenceIterator(), DISTINCT | NONNULL),
+                false
+        );
+    }
+
+    /**
+     * @return A read-only set view of all distinct non-empty subsequences, without hashing any of them.
+     */
+    public Set<List<T>> distinctSubsequences() {
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<List<T>> iterator() {
+                return new DistinctSubsequenceIterator();
+            }
+
+            @Override
+            public int size() {
+                return (int) Math.min(Integer.MAX_VALUE, countDistinctSubsequences());
+            }
+
+            @Override
+            public boolean contains(
+                    final Object object
+            ) {
+                return object instanceof List<?> list
+                        && !list.isEmpty()
+                        && list.stream().allMatch(Number.class::isInstance)
+                        && SequenceIndex.this.contains(list.stream().map(Number.class::cast).toList());
+            }
+
+        };
+    }
+
+    /**
+     * @return The ranks of the values of {@code subsequence}, or an empty array when it contains a value that does not occur in the sequence.
+     */
+    private int[] toPattern(
+            final List<? extends Number> subsequence
+    ) {
+        final long[] values = Longs.toArray(subsequence);
+
+        for (final long value : values) {
+            if (Arrays.binarySearch(alphabet, value) < 0) {
+                return new int[0];
+            }
+        }
+
+        return SuffixArrays.ranks(values, alphabet);
+    }
+
+    private final class DistinctSubsequenceIterator implements Iterator<List<T>> {
+
+        private int position = 0;
+        private int length = longestCommonPrefixes.length == 0 ? 0 : longestCommonPrefixes[0];
+
+        @Override
+        public boolean hasNext() {
+            while (position < suffixArray.length && suffixArray[position] + length >= size()) {
+                position++;
+
+                if (position < suffixArray.length) {
+                    length = longestCommonPrefixes[position];
+                }
+            }
+
+            return position < suffixArray.length;
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            length++;
+
+            return sequence.subList(suffixArray[position], suffixArray[position] + length);
+        }
+
+    }
+
+}
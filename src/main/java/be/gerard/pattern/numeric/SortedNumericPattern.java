@@ -1,14 +1,27 @@
 package be.gerard.pattern.numeric;
 
+import be.gerard.pattern.numeric.internal.ContainerSet;
+import be.gerard.pattern.numeric.internal.DifferenceSets;
+import be.gerard.pattern.numeric.internal.Longs;
+import be.gerard.pattern.numeric.internal.SequenceContainers;
+import be.gerard.pattern.numeric.internal.SequenceCyclic;
 import be.gerard.pattern.numeric.internal.SequenceEmpty;
+import be.gerard.pattern.numeric.internal.SequenceMapped;
 import be.gerard.pattern.numeric.internal.SequenceSorted;
+import be.gerard.pattern.numeric.internal.SequenceSortedLong;
 
+import java.util.BitSet;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
 
 @Sorted
-public sealed interface SortedNumericPattern<T extends Number> extends NumericPattern<T> permits SequenceEmpty, SequenceSorted {
+public sealed interface SortedNumericPattern<T extends Number> extends NumericPattern<T> permits SequenceContainers, SequenceCyclic, SequenceEmpty, SequenceMapped, SequenceSorted, SequenceSortedLong {
 
     static <T extends Number> boolean isSorted(
             final List<T> sequence
@@ -22,10 +35,132 @@ public sealed interface SortedNumericPattern<T extends Number> extends NumericPa
         return true;
     }
 
-    boolean canReach(T number);
+    /**
+     * Building the index is O(n), patterns build it on their first query and reuse it for all later queries.
+     */
+    default ReachabilityIndex reachability() {
+        return ReachabilityIndex.of(this);
+    }
+
+    default boolean canReach(
+            final T number
+    ) {
+        return reachability().canReach(number.longValue());
+    }
+
+    default boolean[] canReach(
+            final long[] numbers
+    ) {
+        return reachability().canReach(numbers);
+    }
+
+    default OptionalLong nextReachable(
+            final Number number
+    ) {
+        return reachability().nextReachable(number.longValue());
+    }
+
+    default OptionalLong previousReachable(
+            final Number number
+    ) {
+        return reachability().previousReachable(number.longValue());
+    }
+
+    default LongStream reachable(
+            final Number from,
+            final Number to
+    ) {
+        return reachability().reachable(from.longValue(), to.longValue());
+    }
+
+    default BitSet reachableBetween(
+            final Number from,
+            final Number to
+    ) {
+        return reachability().reachableBetween(from.longValue(), to.longValue());
+    }
+
+    /**
+     * Sorted increments are positive and only grow with the distance between elements.
+     * Dense patterns are handled by autocorrelation, in O(R log R) for a range R, instead of by visiting every pair.
+     */
+    @Override
+    default Set<Long> findDistinctCombinatorialIncrements(
+            final Number maxLength
+    ) {
+        return streamDistinctCombinatorialIncrements(maxLength)
+                .boxed()
+                .collect(toUnmodifiableSet());
+    }
+
+    @Override
+    default LongStream streamDistinctCombinatorialIncrements(
+            final Number maxLength
+    ) {
+        return DifferenceSets.stream(Longs.toArray(sequence()), size(), maxLength.longValue());
+    }
+
+    /**
+     * @return A bitmap of the distinct combinatorial increments, in which bit {@code i} represents increment {@code i}.
+     */
+    default BitSet combinatorialIncrementBitmap(
+            final Number maxLength
+    ) {
+        return DifferenceSets.bitmap(Longs.toArray(sequence()), size(), maxLength.longValue());
+    }
+
+    /**
+     * Set operations split both patterns in chunks of 2^16 consecutive numbers, each kept as runs, an array or a bitmap, whichever is the smallest (Roaring bitmaps).
+     * Chunks and the values within them are merged by galloping search, so combining a sparse pattern with a dense one scales with the sparse one and with the number of runs.
+     * <p>
+     * The result keeps its chunks for further set operations, as do patterns of {@link NumericPattern#ranges}; any other pattern is read once, in O(n).
+     *
+     * @return The numbers in this pattern, in the other or in both.
+     */
+    default SortedNumericPattern<Long> union(
+            final SortedNumericPattern<? extends Number> other
+    ) {
+        return SequenceContainers.of(ContainerSet.of(this).union(ContainerSet.of(other)));
+    }
+
+    /**
+     * @return The numbers in both this pattern and the other, see {@link #union(SortedNumericPattern)}.
+     */
+    default SortedNumericPattern<Long> intersection(
+            final SortedNumericPattern<? extends Number> other
+    ) {
+        return SequenceContainers.of(ContainerSet.of(this).intersection(ContainerSet.of(other)));
+    }
+
+    /**
+     * @return The numbers in this pattern which are not in the other, see {@link #union(SortedNumericPattern)}.
+     */
+    default SortedNumericPattern<Long> difference(
+            final SortedNumericPattern<? extends Number> other
+    ) {
+        return SequenceContainers.of(ContainerSet.of(this).difference(ContainerSet.of(other)));
+    }
+
+    /**
+     * @return The numbers in either this pattern or the other, but not in both, see {@link #union(SortedNumericPattern)}.
+     */
+    default SortedNumericPattern<Long> symmetricDifference(
+            final SortedNumericPattern<? extends Number> other
+    ) {
+        return SequenceContainers.of(ContainerSet.of(this).symmetricDifference(ContainerSet.of(other)));
+    }
 
     List<List<T>> splitDeviatingIncrements(Number increment);
 
+    /**
+     * @return The same groups as {@link #splitDeviatingIncrements(Number)}, which are only split as the stream is consumed by patterns backed by a file.
+     */
+    default Stream<List<T>> streamSplitDeviatingIncrements(
+            final Number increment
+    ) {
+        return splitDeviatingIncrements(increment).stream();
+    }
+
     Set<Fit<T>> groupCommonIncrements(Number maxIncrement);
 
     Set<Fit<T>> groupCycles(Number patternLength);
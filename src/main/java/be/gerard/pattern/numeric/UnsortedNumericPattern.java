@@ -1,6 +1,7 @@
 package be.gerard.pattern.numeric;
 
 import be.gerard.pattern.numeric.internal.SequenceUnsorted;
+import be.gerard.pattern.numeric.internal.SequenceUnsortedLong;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -10,7 +11,7 @@ import java.util.stream.IntStream;
 import static java.util.Collections.emptyList;
 
 @Unsorted
-public sealed interface UnsortedNumericPattern<T extends Number> extends NumericPattern<T> permits SequenceUnsorted {
+public sealed interface UnsortedNumericPattern<T extends Number> extends NumericPattern<T> permits SequenceUnsorted, SequenceUnsortedLong {
 
     @Override
     default boolean isSorted() {
@@ -0,0 +1,81 @@
+package be.gerard.pattern.numeric;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Decides whether the (expensive) validation of a fit runs.
+ * Fits which are constructed in a trusted block are correct by construction, so they are never validated.
+ */
+final class Validation {
+
+    static final String LEVEL_PROPERTY = "be.gerard.pattern.numeric.validation";
+    static final int SAMPLING_INTERVAL = 64;
+
+    private static final ThreadLocal<Boolean> TRUSTED = ThreadLocal.withInitial(() -> false);
+    private static final AtomicLong CONSTRUCTIONS = new AtomicLong();
+
+    private static volatile ValidationLevel level = parse(System.getProperty(LEVEL_PROPERTY));
+
+    private Validation() {
+        // no-op
+    }
+
+    /**
+     * An unknown level falls back to {@link ValidationLevel#FULL}, a mistyped property must not break every later construction of a fit.
+     */
+    static ValidationLevel parse(
+            final String value
+    ) {
+        if (value == null) {
+            return ValidationLevel.FULL;
+        }
+
+        return Arrays.stream(ValidationLevel.values())
+                .filter(level -> level.name().equals(value.trim().toUpperCase(Locale.ROOT)))
+                .findFirst()
+                .orElse(ValidationLevel.FULL);
+    }
+
+    static ValidationLevel level() {
+        return level;
+    }
+
+    static void level(
+            final ValidationLevel level
+    ) {
+        notNull(level);
+
+        Validation.level = level;
+    }
+
+    static boolean isRequired() {
+        if (TRUSTED.get()) {
+            return false;
+        }
+
+        return switch (level) {
+            case FULL -> true;
+            case SAMPLED -> CONSTRUCTIONS.getAndIncrement() % SAMPLING_INTERVAL == 0;
+            case OFF -> false;
+        };
+    }
+
+    static <R> R trusted(
+            final Supplier<R> supplier
+    ) {
+        final boolean trusted = TRUSTED.get();
+        TRUSTED.set(true);
+
+        try {
+            return supplier.get();
+        } finally {
+            TRUSTED.set(trusted);
+        }
+    }
+
+}
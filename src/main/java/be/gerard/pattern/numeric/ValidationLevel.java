@@ -0,0 +1,24 @@
+package be.gerard.pattern.numeric;
+
+/**
+ * How thoroughly fits are validated when they are constructed.
+ * The default is {@link #FULL}, unless the system property {@code be.gerard.pattern.numeric.validation} names another level.
+ */
+public enum ValidationLevel {
+
+    /**
+     * Every fit is validated.
+     */
+    FULL,
+
+    /**
+     * One in every 64 fits is validated, which still catches systematic errors.
+     */
+    SAMPLED,
+
+    /**
+     * No fit is validated, only null and empty checks remain.
+     */
+    OFF
+
+}
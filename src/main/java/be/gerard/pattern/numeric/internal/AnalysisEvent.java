@@ -0,0 +1,80 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.PatternMetrics.Analysis;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a single call to one of the analyses, of which the duration is recorded by the event itself.
+ * Every analysis has its own event type, so that they are enabled and given a threshold separately.
+ */
+@Category({"Numeric Pattern", "Analysis"})
+@StackTrace(false)
+abstract class AnalysisEvent extends Event {
+
+    @Label("Input Size")
+    @Description("The number of values of the sequence")
+    int inputSize;
+
+    @Label("Candidate Count")
+    @Description("The number of candidate subsequences which were generated")
+    long candidateCount;
+
+    @Label("Recursion Depth")
+    @Description("The deepest level at which the analysis was applied again to a part of the sequence")
+    int recursionDepth;
+
+    static AnalysisEvent of(
+            final Analysis analysis
+    ) {
+        return switch (analysis) {
+            case SPLIT_BY_MOST_LIKELY_PATTERN -> new SplitByMostLikelyPattern();
+            case FIND_ALL_BEST_FITTING_SUBSEQUENCES -> new FindAllBestFittingSubsequences();
+            case FIND_ALL_RUNS -> new FindAllRuns();
+            case FIND_ALL_NON_REPEATABLE_PARTIAL_FITS -> new FindAllNonRepeatablePartialFits();
+            case FIND_ALL_PARTIAL_FITS -> new FindAllPartialFits();
+            case GROUP_COMMON_INCREMENTS -> new GroupCommonIncrements();
+            case GROUP_CYCLES -> new GroupCycles();
+        };
+    }
+
+    @Name("be.gerard.pattern.numeric.SplitByMostLikelyPattern")
+    @Label("Split By Most Likely Pattern")
+    static final class SplitByMostLikelyPattern extends AnalysisEvent {
+    }
+
+    @Name("be.gerard.pattern.numeric.FindAllBestFittingSubsequences")
+    @Label("Find All Best Fitting Subsequences")
+    static final class FindAllBestFittingSubsequences extends AnalysisEvent {
+    }
+
+    @Name("be.gerard.pattern.numeric.FindAllRuns")
+    @Label("Find All Runs")
+    static final class FindAllRuns extends AnalysisEvent {
+    }
+
+    @Name("be.gerard.pattern.numeric.FindAllNonRepeatablePartialFits")
+    @Label("Find All Non-Repeatable Partial Fits")
+    static final class FindAllNonRepeatablePartialFits extends AnalysisEvent {
+    }
+
+    @Name("be.gerard.pattern.numeric.FindAllPartialFits")
+    @Label("Find All Partial Fits")
+    static final class FindAllPartialFits extends AnalysisEvent {
+    }
+
+    @Name("be.gerard.pattern.numeric.GroupCommonIncrements")
+    @Label("Group Common Increments")
+    static final class GroupCommonIncrements extends AnalysisEvent {
+    }
+
+    @Name("be.gerard.pattern.numeric.GroupCycles")
+    @Label("Group Cycles")
+    static final class GroupCycles extends AnalysisEvent {
+    }
+
+}
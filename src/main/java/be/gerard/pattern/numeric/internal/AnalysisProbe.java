@@ -0,0 +1,139 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.PatternMetrics;
+import be.gerard.pattern.numeric.PatternMetrics.Analysis;
+import be.gerard.pattern.numeric.PatternMetrics.Counter;
+
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Measures a single call to one of the analyses, for its flight recorder event and for the installed {@link PatternMetrics}.
+ * <p>
+ * When neither of them is enabled, the shared disabled probe is returned, which ignores everything it is told.
+ * Recursive and parallel parts of the same analysis report to the same probe, so the counts are atomic.
+ */
+public final class AnalysisProbe {
+
+    private static final AnalysisProbe DISABLED = new AnalysisProbe(null, null, null, 0, 0);
+
+    private static volatile PatternMetrics metrics;
+
+    private final Analysis analysis;
+    private final AnalysisEvent event;
+    private final PatternMetrics probeMetrics;
+    private final int inputSize;
+    private final long start;
+    private final AtomicLong candidateCount = new AtomicLong();
+    private final AtomicInteger recursionDepth = new AtomicInteger();
+
+    private AnalysisProbe(
+            final Analysis analysis,
+            final AnalysisEvent event,
+            final PatternMetrics probeMetrics,
+            final int inputSize,
+            final long start
+    ) {
+        this.analysis = analysis;
+        this.event = event;
+        this.probeMetrics = probeMetrics;
+        this.inputSize = inputSize;
+        this.start = start;
+    }
+
+    public static PatternMetrics metrics() {
+        final PatternMetrics current = metrics;
+
+        return current == null ? load() : current;
+    }
+
+    public static synchronized void metrics(
+            final PatternMetrics metrics
+    ) {
+        notNull(metrics);
+
+        AnalysisProbe.metrics = metrics;
+    }
+
+    /**
+     * The provider is looked up on first use rather than when the class is initialized, so that a broken one can not fail every analysis.
+     */
+    private static synchronized PatternMetrics load() {
+        if (metrics == null) {
+            metrics = provided(ServiceLoader.load(PatternMetrics.class));
+        }
+
+        return metrics;
+    }
+
+    /**
+     * @return The first provider, or {@link PatternMetrics#NONE} when there is none or when it can not be loaded.
+     */
+    static PatternMetrics provided(
+            final ServiceLoader<PatternMetrics> loader
+    ) {
+        try {
+            return loader.findFirst().orElse(PatternMetrics.NONE);
+        } catch (final ServiceConfigurationError e) {
+            return PatternMetrics.NONE;
+        }
+    }
+
+    public static AnalysisProbe start(
+            final Analysis analysis,
+            final int inputSize
+    ) {
+        final AnalysisEvent event = AnalysisEvent.of(analysis);
+        final PatternMetrics probeMetrics = metrics();
+
+        if (!event.isEnabled() && probeMetrics == PatternMetrics.NONE) {
+            return DISABLED;
+        }
+
+        event.begin();
+
+        return new AnalysisProbe(analysis, event, probeMetrics, inputSize, probeMetrics == PatternMetrics.NONE ? 0 : System.nanoTime());
+    }
+
+    public void candidates(
+            final long count
+    ) {
+        if (this != DISABLED) {
+            candidateCount.addAndGet(count);
+        }
+    }
+
+    public void recursion(
+            final int depth
+    ) {
+        if (this != DISABLED) {
+            recursionDepth.accumulateAndGet(depth, Math::max);
+        }
+    }
+
+    public void end() {
+        if (this == DISABLED) {
+            return;
+        }
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.inputSize = inputSize;
+            event.candidateCount = candidateCount.get();
+            event.recursionDepth = recursionDepth.get();
+            event.commit();
+        }
+
+        if (probeMetrics != PatternMetrics.NONE) {
+            probeMetrics.time(analysis, System.nanoTime() - start);
+            probeMetrics.count(analysis, Counter.INPUT_VALUES, inputSize);
+            probeMetrics.count(analysis, Counter.CANDIDATE_SUBSEQUENCES, candidateCount.get());
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.noNullElements;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Compressed trie (radix tree) over a set of keys, of which every edge is labelled by a range of one of the keys instead of a copy.
+ * <p>
+ * The keys are inserted in lexicographic order, which is also the depth-first order of the trie,
+ * so the keys below every node are a range of that order and are listed without visiting the subtree.
+ * Labels are compared with {@link Arrays#mismatch(long[], int, int, long[], int, int)}, which compares many values at once.
+ */
+public final class CompressedTrie {
+
+    private final long[][] keys;
+    private final int[] order;
+    private final Node root;
+
+    private CompressedTrie(
+            final long[][] keys
+    ) {
+        this.keys = keys;
+        this.order = IntStream.range(0, keys.length)
+                .boxed()
+                .sorted(Comparator.comparing(i -> keys[i], Arrays::compare))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.root = new Node(-1, 0, 0);
+        this.root.to = 0;
+
+        for (int rank = 0; rank < order.length; rank++) {
+            insert(rank);
+        }
+    }
+
+    public static CompressedTrie of(
+            final long[][] keys
+    ) {
+        noNullElements(keys);
+
+        return new CompressedTrie(keys);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * The key is larger than or equal to all keys inserted before it, so a new child always comes after the existing children of its parent.
+     */
+    private void insert(
+            final int rank
+    ) {
+        final long[] key = keys[order[rank]];
+        Node node = root;
+        node.to = rank + 1;
+
+        while (node.end < key.length) {
+            final int depth = node.end;
+            final Node child = node.child(key[depth]);
+
+            if (child == null) {
+                node.add(key[depth], new Node(order[rank], key.length, rank));
+                return;
+            }
+
+            final int limit = Math.min(child.end, key.length);
+            final int mismatch = Arrays.mismatch(keys[child.key], depth, limit, key, depth, limit);
+
+            if (mismatch < 0 && limit == child.end) {
+                node = child;
+                node.to = rank + 1;
+                continue;
+            }
+
+            final int splitDepth = mismatch < 0 ? limit : depth + mismatch;
+            final Node split = new Node(child.key, splitDepth, child.from);
+
+            split.add(keys[child.key][splitDepth], child);
+            split.to = rank + 1;
+            node.replaceLast(split);
+
+            if (splitDepth < key.length) {
+                split.add(key[splitDepth], new Node(order[rank], key.length, rank));
+            }
+
+            return;
+        }
+    }
+
+    /**
+     * @return The length of the longest prefix of the query which is also a prefix of one of the keys, in O(m log s) for s children per node.
+     */
+    public int longestCommonPrefix(
+            final long[] query
+    ) {
+        notNull(query);
+
+        Node node = root;
+
+        while (node.end < query.length) {
+            final int depth = node.end;
+            final Node child = node.child(query[depth]);
+
+            if (child == null) {
+                return depth;
+            }
+
+            final int limit = Math.min(child.end, query.length);
+            final int mismatch = Arrays.mismatch(keys[child.key], depth, limit, query, depth, limit);
+
+            if (mismatch >= 0) {
+                return depth + mismatch;
+            }
+
+            if (limit < child.end) {
+                return limit;
+            }
+
+            node = child;
+        }
+
+        return node.end;
+    }
+
+    /**
+     * @return The indices of all keys which start with the first {@code length} values of the query, in ascending order.
+     */
+    public IntStream withCommonPrefix(
+            final long[] query,
+            final int length
+    ) {
+        notNull(query);
+        isTrue(0 <= length, "length must not be negative");
+
+        if (length > query.length) {
+            return IntStream.empty();
+        }
+
+        Node node = root;
+
+        while (node.end < length) {
+            final int depth = node.end;
+            final Node child = node.child(query[depth]);
+
+            if (child == null) {
+                return IntStream.empty();
+            }
+
+            final int limit = Math.min(child.end, length);
+
+            if (Arrays.mismatch(keys[child.key], depth, limit, query, depth, limit) >= 0) {
+                return IntStream.empty();
+            }
+
+            node = child;
+        }
+
+        return Arrays.stream(order, node.from, node.to)
+                .sorted();
+    }
+
+    /**
+     * The edge to a node is labelled by {@code keys[key]} from the end of its parent up to its own end, and the keys below it are {@code order[from, to)}.
+     */
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final int key;
+        private final int end;
+        private final int from;
+        private int to;
+        private long[] childValues = new long[0];
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+
+        private Node(
+                final int key,
+                final int end,
+                final int from
+        ) {
+            this.key = key;
+            this.end = end;
+            this.from = from;
+            this.to = from + 1;
+        }
+
+        private Node child(
+                final long value
+        ) {
+            final int index = Arrays.binarySearch(childValues, 0, childCount, value);
+
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void add(
+                final long value,
+                final Node child
+        ) {
+            if (childCount == children.length) {
+                childValues = Arrays.copyOf(childValues, Math.max(2, 2 * childCount));
+                children = Arrays.copyOf(children, childValues.length);
+            }
+
+            childValues[childCount] = value;
+            children[childCount++] = child;
+        }
+
+        private void replaceLast(
+                final Node child
+        ) {
+            children[childCount - 1] = child;
+        }
+
+    }
+
+}
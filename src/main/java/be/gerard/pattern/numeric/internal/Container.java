@@ -0,0 +1,502 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+/**
+ * Set of the lowest 16 bits of the numbers in a chunk of 2^16 consecutive numbers (Roaring bitmaps, Chambi et al.),
+ * as a sorted array of up to {@value #MAXIMUM_ARRAY_SIZE} values, a bitmap of 2^16 bits, or sorted runs of consecutive values.
+ * <p>
+ * Containers are immutable and always take the smallest of the three representations, so equal sets have equal containers.
+ */
+sealed interface Container permits Container.Array, Container.Bitmap, Container.Run {
+
+    int CHUNK_SIZE = 1 << 16;
+    int MAXIMUM_ARRAY_SIZE = 4096;
+    int BITMAP_WORDS = CHUNK_SIZE / Long.SIZE;
+
+    int cardinality();
+
+    boolean contains(int value);
+
+    /**
+     * @return The value of the given rank, starting from 0.
+     */
+    int select(int rank);
+
+    long[] toWords();
+
+    Run toRun();
+
+    /**
+     * Writes every value, added to the base, from the offset onwards.
+     *
+     * @return The offset after the last value.
+     */
+    int writeTo(long base, long[] target, int offset);
+
+    /**
+     * @param values sorted and distinct
+     */
+    static Container ofValues(
+            final char[] values,
+            final int size
+    ) {
+        int runCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || values[i] != values[i - 1] + 1) {
+                runCount++;
+            }
+        }
+
+        if (prefersRuns(size, runCount)) {
+            final char[] starts = new char[runCount];
+            final char[] ends = new char[runCount];
+            int run = -1;
+
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || values[i] != values[i - 1] + 1) {
+                    starts[++run] = values[i];
+                }
+
+                ends[run] = values[i];
+            }
+
+            return Run.of(starts, ends);
+        }
+
+        if (size <= MAXIMUM_ARRAY_SIZE) {
+            return new Array(Arrays.copyOf(values, size));
+        }
+
+        final BitSet bits = new BitSet(CHUNK_SIZE);
+
+        for (int i = 0; i < size; i++) {
+            bits.set(values[i]);
+        }
+
+        return Bitmap.of(words(bits));
+    }
+
+    static Container ofWords(
+            final long[] words
+    ) {
+        int cardinality = 0;
+        int runCount = 0;
+        long previous = 0;
+
+        for (final long word : words) {
+            cardinality += Long.bitCount(word);
+            runCount += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+            previous = word;
+        }
+
+        if (prefersRuns(cardinality, runCount)) {
+            return runs(words, runCount);
+        }
+
+        if (cardinality <= MAXIMUM_ARRAY_SIZE) {
+            final char[] values = new char[cardinality];
+            int size = 0;
+
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    values[size++] = (char) (word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                }
+            }
+
+            return new Array(values);
+        }
+
+        return Bitmap.of(words);
+    }
+
+    /**
+     * @param starts sorted
+     * @param ends   inclusive, and before the next start minus one
+     */
+    static Container ofRuns(
+            final char[] starts,
+            final char[] ends,
+            final int runCount
+    ) {
+        int cardinality = 0;
+
+        for (int i = 0; i < runCount; i++) {
+            cardinality += ends[i] - starts[i] + 1;
+        }
+
+        if (prefersRuns(cardinality, runCount)) {
+            return Run.of(Arrays.copyOf(starts, runCount), Arrays.copyOf(ends, runCount));
+        }
+
+        if (cardinality <= MAXIMUM_ARRAY_SIZE) {
+            final char[] values = new char[cardinality];
+            int size = 0;
+
+            for (int i = 0; i < runCount; i++) {
+                for (int value = starts[i]; value <= ends[i]; value++) {
+                    values[size++] = (char) value;
+                }
+            }
+
+            return new Array(values);
+        }
+
+        final BitSet bits = new BitSet(CHUNK_SIZE);
+
+        for (int i = 0; i < runCount; i++) {
+            bits.set(starts[i], ends[i] + 1);
+        }
+
+        return Bitmap.of(words(bits));
+    }
+
+    /**
+     * Runs take 4 bytes per run, arrays 2 bytes per value and bitmaps 8 kB, which is also the size of a full array.
+     */
+    private static boolean prefersRuns(
+            final int cardinality,
+            final int runCount
+    ) {
+        return 4L * runCount < Math.min(2L * cardinality, 2L * MAXIMUM_ARRAY_SIZE);
+    }
+
+    private static long[] words(
+            final BitSet bits
+    ) {
+        return Arrays.copyOf(bits.toLongArray(), BITMAP_WORDS);
+    }
+
+    private static Run runs(
+            final long[] words,
+            final int runCount
+    ) {
+        final BitSet bits = BitSet.valueOf(words);
+        final char[] starts = new char[runCount];
+        final char[] ends = new char[runCount];
+        int start = bits.nextSetBit(0);
+
+        for (int run = 0; run < runCount; run++) {
+            final int end = bits.nextClearBit(start);
+
+            starts[run] = (char) start;
+            ends[run] = (char) (end - 1);
+            start = bits.nextSetBit(end);
+        }
+
+        return Run.of(starts, ends);
+    }
+
+    record Array(
+            char[] values
+    ) implements Container {
+
+        @Override
+        public int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        public boolean contains(
+                final int value
+        ) {
+            return Arrays.binarySearch(values, (char) value) >= 0;
+        }
+
+        @Override
+        public int select(
+                final int rank
+        ) {
+            return values[rank];
+        }
+
+        @Override
+        public long[] toWords() {
+            final BitSet bits = new BitSet(CHUNK_SIZE);
+
+            for (final char value : values) {
+                bits.set(value);
+            }
+
+            return words(bits);
+        }
+
+        @Override
+        public Run toRun() {
+            final int[] starts = IntStream.range(0, values.length)
+                    .filter(i -> i == 0 || values[i] != values[i - 1] + 1)
+                    .toArray();
+
+            final char[] runStarts = new char[starts.length];
+            final char[] runEnds = new char[starts.length];
+
+            for (int run = 0; run < starts.length; run++) {
+                runStarts[run] = values[starts[run]];
+                runEnds[run] = values[run + 1 < starts.length ? starts[run + 1] - 1 : values.length - 1];
+            }
+
+            return Run.of(runStarts, runEnds);
+        }
+
+        @Override
+        public int writeTo(
+                final long base,
+                final long[] target,
+                final int offset
+        ) {
+            for (int i = 0; i < values.length; i++) {
+                target[offset + i] = base + values[i];
+            }
+
+            return offset + values.length;
+        }
+
+        @Override
+        public boolean equals(
+                final Object other
+        ) {
+            return other instanceof Array array && Arrays.equals(values, array.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+
+    }
+
+    /**
+     * @param blockRanks The number of values before every block of 8 words, followed by the cardinality.
+     */
+    record Bitmap(
+            long[] words,
+            int[] blockRanks
+    ) implements Container {
+
+        private static final int BLOCK_WORDS = 8;
+
+        public Bitmap {
+            isTrue(words.length == BITMAP_WORDS);
+            isTrue(blockRanks.length == BITMAP_WORDS / BLOCK_WORDS + 1);
+        }
+
+        static Bitmap of(
+                final long[] words
+        ) {
+            final int[] blockRanks = new int[BITMAP_WORDS / BLOCK_WORDS + 1];
+
+            for (int block = 0; block < BITMAP_WORDS / BLOCK_WORDS; block++) {
+                blockRanks[block + 1] = blockRanks[block];
+
+                for (int word = block * BLOCK_WORDS; word < (block + 1) * BLOCK_WORDS; word++) {
+                    blockRanks[block + 1] += Long.bitCount(words[word]);
+                }
+            }
+
+            return new Bitmap(words, blockRanks);
+        }
+
+        @Override
+        public int cardinality() {
+            return blockRanks[blockRanks.length - 1];
+        }
+
+        @Override
+        public boolean contains(
+                final int value
+        ) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int select(
+                final int rank
+        ) {
+            // the last block with at most rank values before it, of which empty blocks have the same rank as the next one
+            int low = 0;
+            int high = blockRanks.length - 1;
+
+            while (low + 1 < high) {
+                final int middle = (low + high) >>> 1;
+
+                if (blockRanks[middle] <= rank) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+
+            int word = low * BLOCK_WORDS;
+            int remaining = rank - blockRanks[low];
+
+            while (Long.bitCount(words[word]) <= remaining) {
+                remaining -= Long.bitCount(words[word]);
+                word++;
+            }
+
+            long bits = words[word];
+
+            for (; remaining > 0; remaining--) {
+                bits &= bits - 1;
+            }
+
+            return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        }
+
+        @Override
+        public long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        public Run toRun() {
+            int runCount = 0;
+            long previous = 0;
+
+            for (final long word : words) {
+                runCount += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+                previous = word;
+            }
+
+            return runs(words, runCount);
+        }
+
+        @Override
+        public int writeTo(
+                final long base,
+                final long[] target,
+                final int offset
+        ) {
+            int position = offset;
+
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    target[position++] = base + word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                }
+            }
+
+            return position;
+        }
+
+        @Override
+        public boolean equals(
+                final Object other
+        ) {
+            return other instanceof Bitmap bitmap && Arrays.equals(words, bitmap.words);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(words);
+        }
+
+    }
+
+    /**
+     * @param ends  inclusive
+     * @param ranks The number of values before every run, followed by the cardinality.
+     */
+    record Run(
+            char[] starts,
+            char[] ends,
+            int[] ranks
+    ) implements Container {
+
+        public Run {
+            isTrue(starts.length == ends.length && ranks.length == starts.length + 1);
+        }
+
+        static Run of(
+                final char[] starts,
+                final char[] ends
+        ) {
+            final int[] ranks = new int[starts.length + 1];
+
+            for (int i = 0; i < starts.length; i++) {
+                ranks[i + 1] = ranks[i] + ends[i] - starts[i] + 1;
+            }
+
+            return new Run(starts, ends, ranks);
+        }
+
+        public int runCount() {
+            return starts.length;
+        }
+
+        @Override
+        public int cardinality() {
+            return ranks[ranks.length - 1];
+        }
+
+        @Override
+        public boolean contains(
+                final int value
+        ) {
+            final int run = ContainerAlgebra.gallop(ends, 0, ends.length, value);
+
+            return run < ends.length && starts[run] <= value;
+        }
+
+        @Override
+        public int select(
+                final int rank
+        ) {
+            final int insertion = Arrays.binarySearch(ranks, rank);
+            final int run = insertion >= 0 ? insertion : -insertion - 2;
+
+            return starts[run] + rank - ranks[run];
+        }
+
+        @Override
+        public long[] toWords() {
+            final BitSet bits = new BitSet(CHUNK_SIZE);
+
+            for (int i = 0; i < starts.length; i++) {
+                bits.set(starts[i], ends[i] + 1);
+            }
+
+            return words(bits);
+        }
+
+        @Override
+        public Run toRun() {
+            return this;
+        }
+
+        @Override
+        public int writeTo(
+                final long base,
+                final long[] target,
+                final int offset
+        ) {
+            int position = offset;
+
+            for (int i = 0; i < starts.length; i++) {
+                for (int value = starts[i]; value <= ends[i]; value++) {
+                    target[position++] = base + value;
+                }
+            }
+
+            return position;
+        }
+
+        @Override
+        public boolean equals(
+                final Object other
+        ) {
+            return other instanceof Run run && Arrays.equals(starts, run.starts) && Arrays.equals(ends, run.ends);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+        }
+
+    }
+
+}
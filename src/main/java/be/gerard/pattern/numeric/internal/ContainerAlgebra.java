@@ -0,0 +1,299 @@
+package be.gerard.pattern.numeric.internal;
+
+import static be.gerard.pattern.numeric.internal.Container.CHUNK_SIZE;
+
+/**
+ * Set operations between containers of the same chunk, on the cheapest pair of representations:
+ * arrays are filtered by galloping through the other container, bitmaps are combined word by word, and runs are swept by their boundaries.
+ */
+final class ContainerAlgebra {
+
+    private ContainerAlgebra() {
+        // no-op
+    }
+
+    enum Operation {
+        UNION,
+        INTERSECTION,
+        DIFFERENCE,
+        SYMMETRIC_DIFFERENCE;
+
+        boolean test(
+                final boolean inLeft,
+                final boolean inRight
+        ) {
+            return switch (this) {
+                case UNION -> inLeft || inRight;
+                case INTERSECTION -> inLeft && inRight;
+                case DIFFERENCE -> inLeft && !inRight;
+                case SYMMETRIC_DIFFERENCE -> inLeft != inRight;
+            };
+        }
+
+        long apply(
+                final long left,
+                final long right
+        ) {
+            return switch (this) {
+                case UNION -> left | right;
+                case INTERSECTION -> left & right;
+                case DIFFERENCE -> left & ~right;
+                case SYMMETRIC_DIFFERENCE -> left ^ right;
+            };
+        }
+
+    }
+
+    /**
+     * @return The result, which is empty when there is nothing left of the chunk.
+     */
+    static Container apply(
+            final Operation operation,
+            final Container left,
+            final Container right
+    ) {
+        if (operation == Operation.INTERSECTION && right instanceof Container.Array && !(left instanceof Container.Array)) {
+            return apply(operation, right, left);
+        }
+
+        if (left instanceof Container.Array array && (operation == Operation.INTERSECTION || operation == Operation.DIFFERENCE)) {
+            return filter(array, right, operation == Operation.INTERSECTION);
+        }
+
+        if (left instanceof Container.Bitmap || right instanceof Container.Bitmap) {
+            return combine(operation, left.toWords(), right.toWords());
+        }
+
+        if (left instanceof Container.Array leftArray && right instanceof Container.Array rightArray) {
+            return merge(operation, leftArray.values(), rightArray.values());
+        }
+
+        return sweep(operation, left.toRun(), right.toRun());
+    }
+
+    /**
+     * Visits every value of the array once, and only the part of the other container up to the last value, in O(a log(n / a)).
+     */
+    private static Container filter(
+            final Container.Array left,
+            final Container right,
+            final boolean contained
+    ) {
+        final char[] values = left.values();
+        final char[] kept = new char[values.length];
+        int size = 0;
+        int position = 0;
+
+        for (final char value : values) {
+            final boolean contains;
+
+            if (right instanceof Container.Array array) {
+                position = gallop(array.values(), position, array.values().length, value);
+                contains = position < array.values().length && array.values()[position] == value;
+            } else if (right instanceof Container.Run run) {
+                position = gallop(run.ends(), position, run.ends().length, value);
+                contains = position < run.ends().length && run.starts()[position] <= value;
+            } else {
+                contains = right.contains(value);
+            }
+
+            if (contains == contained) {
+                kept[size++] = value;
+            }
+        }
+
+        return Container.ofValues(kept, size);
+    }
+
+    private static Container combine(
+            final Operation operation,
+            final long[] left,
+            final long[] right
+    ) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] = operation.apply(left[i], right[i]);
+        }
+
+        return Container.ofWords(left);
+    }
+
+    private static Container merge(
+            final Operation operation,
+            final char[] left,
+            final char[] right
+    ) {
+        final char[] merged = new char[left.length + right.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < left.length || j < right.length) {
+            final int leftValue = i < left.length ? left[i] : CHUNK_SIZE;
+            final int rightValue = j < right.length ? right[j] : CHUNK_SIZE;
+            final int value = Math.min(leftValue, rightValue);
+
+            if (operation.test(leftValue == value, rightValue == value)) {
+                merged[size++] = (char) value;
+            }
+
+            i += leftValue == value ? 1 : 0;
+            j += rightValue == value ? 1 : 0;
+        }
+
+        return Container.ofValues(merged, size);
+    }
+
+    /**
+     * Visits the boundaries (the starts and the ends plus one) of both runs in ascending order, in O(r + s).
+     * While one side is outside its runs and the result is empty regardless of the other, the other side gallops to the next boundary of the first.
+     */
+    private static Container sweep(
+            final Operation operation,
+            final Container.Run left,
+            final Container.Run right
+    ) {
+        final int leftBoundaries = 2 * left.runCount();
+        final int rightBoundaries = 2 * right.runCount();
+        final char[] starts = new char[left.runCount() + right.runCount()];
+        final char[] ends = new char[starts.length];
+        int runCount = 0;
+
+        int i = 0;
+        int j = 0;
+        boolean inLeft = false;
+        boolean inRight = false;
+        boolean inResult = false;
+
+        while (i < leftBoundaries || j < rightBoundaries) {
+            final int leftBoundary = i < leftBoundaries ? boundary(left, i) : Integer.MAX_VALUE;
+            final int rightBoundary = j < rightBoundaries ? boundary(right, j) : Integer.MAX_VALUE;
+
+            if (!inLeft && !operation.test(false, true) && rightBoundary < leftBoundary) {
+                j = skip(right, j, leftBoundary);
+                inRight = j % 2 == 1;
+                continue;
+            }
+
+            if (!inRight && !operation.test(true, false) && leftBoundary < rightBoundary) {
+                i = skip(left, i, rightBoundary);
+                inLeft = i % 2 == 1;
+                continue;
+            }
+
+            final int position = Math.min(leftBoundary, rightBoundary);
+
+            if (leftBoundary == position) {
+                inLeft = i++ % 2 == 0;
+            }
+
+            if (rightBoundary == position) {
+                inRight = j++ % 2 == 0;
+            }
+
+            if (operation.test(inLeft, inRight) != inResult) {
+                inResult = !inResult;
+
+                if (inResult) {
+                    starts[runCount] = (char) position;
+                } else {
+                    ends[runCount++] = (char) (position - 1);
+                }
+            }
+        }
+
+        return Container.ofRuns(starts, ends, runCount);
+    }
+
+    private static int boundary(
+            final Container.Run run,
+            final int index
+    ) {
+        return index % 2 == 0
+                ? run.starts()[index / 2]
+                : run.ends()[index / 2] + 1;
+    }
+
+    /**
+     * @return The index of the first boundary from the given index onwards which is not before the position.
+     */
+    private static int skip(
+            final Container.Run run,
+            final int index,
+            final int position
+    ) {
+        final int next = gallop(run.ends(), index / 2, run.runCount(), position);
+
+        if (next < run.runCount() && run.starts()[next] < position) {
+            return 2 * next + 1;
+        }
+
+        return 2 * next;
+    }
+
+    /**
+     * Exponential search: the distance to the result is doubled until it is passed, and then bisected, in O(log d) for a distance d.
+     *
+     * @return The first index in {@code [from, to)} of which the value is at least the given value, or {@code to}.
+     */
+    static int gallop(
+            final char[] values,
+            final int from,
+            final int to,
+            final int value
+    ) {
+        int low = from;
+        int step = 1;
+
+        while (low + step < to && values[low + step] < value) {
+            low += step;
+            step <<= 1;
+        }
+
+        int high = Math.min(low + step, to);
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @see #gallop(char[], int, int, int)
+     */
+    static int gallop(
+            final long[] values,
+            final int from,
+            final int to,
+            final long value
+    ) {
+        int low = from;
+        int step = 1;
+
+        while (low + step < to && values[low + step] < value) {
+            low += step;
+            step <<= 1;
+        }
+
+        int high = Math.min(low + step, to);
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+}
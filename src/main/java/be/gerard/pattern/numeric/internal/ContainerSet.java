@@ -0,0 +1,369 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.NumericRange;
+import be.gerard.pattern.numeric.SortedNumericPattern;
+import be.gerard.pattern.numeric.internal.ContainerAlgebra.Operation;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static be.gerard.pattern.numeric.internal.Container.CHUNK_SIZE;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.noNullElements;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Set of {@code long}s, split in chunks of 2^16 consecutive numbers, of which every non-empty chunk is a {@link Container}.
+ * Chunks are identified by the highest 48 bits of their numbers, their key, and kept in ascending order.
+ * <p>
+ * Set operations merge the keys by galloping, so chunks which only occur on one side are skipped or shared in O(log d) for a distance d,
+ * instead of being visited one by one.
+ */
+public final class ContainerSet {
+
+    private static final int CHUNK_BITS = 16;
+
+    private static final ContainerSet EMPTY = new ContainerSet(new long[0], new Container[0]);
+
+    private final long[] keys;
+    private final Container[] containers;
+    private final long[] ranks;
+
+    private ContainerSet(
+            final long[] keys,
+            final Container[] containers
+    ) {
+        this.keys = keys;
+        this.containers = containers;
+        this.ranks = new long[containers.length + 1];
+
+        for (int i = 0; i < containers.length; i++) {
+            ranks[i + 1] = ranks[i] + containers[i].cardinality();
+        }
+    }
+
+    /**
+     * Returns the containers of patterns which are the result of set operations, and reads all other patterns once, in O(n).
+     */
+    public static ContainerSet of(
+            final SortedNumericPattern<? extends Number> pattern
+    ) {
+        notNull(pattern);
+
+        if (pattern instanceof SequenceContainers sequence) {
+            return sequence.values();
+        }
+
+        final List<? extends Number> sequence = pattern.sequence();
+        final Builder builder = new Builder();
+        final char[] values = new char[CHUNK_SIZE];
+        int size = 0;
+        long key = 0;
+
+        for (int i = 0; i < sequence.size(); i++) {
+            final long value = Longs.get(sequence, i);
+
+            if (size > 0 && value >> CHUNK_BITS != key) {
+                builder.add(key, Container.ofValues(values, size));
+                size = 0;
+            }
+
+            key = value >> CHUNK_BITS;
+            values[size++] = (char) value;
+        }
+
+        if (size > 0) {
+            builder.add(key, Container.ofValues(values, size));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * @param ranges which may overlap, of at most {@link Integer#MAX_VALUE} numbers in total
+     */
+    public static ContainerSet ofRanges(
+            final Collection<? extends NumericRange<? extends Number>> ranges
+    ) {
+        noNullElements(ranges);
+
+        final List<? extends NumericRange<? extends Number>> sortedRanges = ranges.stream()
+                .sorted(Comparator.comparingLong(range -> range.start().longValue()))
+                .toList();
+
+        final Builder builder = new Builder();
+        final char[] starts = new char[CHUNK_SIZE / 2];
+        final char[] ends = new char[CHUNK_SIZE / 2];
+        int runCount = 0;
+        long key = 0;
+        long cardinality = 0;
+
+        for (int i = 0; i < sortedRanges.size(); ) {
+            final long start = sortedRanges.get(i).start().longValue();
+            long end = sortedRanges.get(i).end().longValue();
+
+            for (i++; i < sortedRanges.size() && (end == Long.MAX_VALUE || sortedRanges.get(i).start().longValue() <= end + 1); i++) {
+                end = Math.max(end, sortedRanges.get(i).end().longValue());
+            }
+
+            cardinality += end - start + 1;
+            isTrue(end - start >= 0 && cardinality <= Integer.MAX_VALUE, "the ranges contain more than %d numbers", Integer.MAX_VALUE);
+
+            for (long chunk = start >> CHUNK_BITS; chunk <= end >> CHUNK_BITS; chunk++) {
+                if (runCount > 0 && chunk != key) {
+                    builder.add(key, Container.ofRuns(starts, ends, runCount));
+                    runCount = 0;
+                }
+
+                key = chunk;
+                starts[runCount] = chunk == start >> CHUNK_BITS ? (char) start : 0;
+                ends[runCount++] = chunk == end >> CHUNK_BITS ? (char) end : (char) (CHUNK_SIZE - 1);
+            }
+        }
+
+        if (runCount > 0) {
+            builder.add(key, Container.ofRuns(starts, ends, runCount));
+        }
+
+        return builder.build();
+    }
+
+    public ContainerSet union(
+            final ContainerSet other
+    ) {
+        return apply(Operation.UNION, other);
+    }
+
+    public ContainerSet intersection(
+            final ContainerSet other
+    ) {
+        return apply(Operation.INTERSECTION, other);
+    }
+
+    public ContainerSet difference(
+            final ContainerSet other
+    ) {
+        return apply(Operation.DIFFERENCE, other);
+    }
+
+    public ContainerSet symmetricDifference(
+            final ContainerSet other
+    ) {
+        return apply(Operation.SYMMETRIC_DIFFERENCE, other);
+    }
+
+    private ContainerSet apply(
+            final Operation operation,
+            final ContainerSet other
+    ) {
+        notNull(other);
+
+        final boolean keepsLeft = operation.test(true, false);
+        final boolean keepsRight = operation.test(false, true);
+        final Builder builder = new Builder();
+
+        int i = 0;
+        int j = 0;
+
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] == other.keys[j]) {
+                final Container container = ContainerAlgebra.apply(operation, containers[i++], other.containers[j++]);
+
+                if (container.cardinality() > 0) {
+                    builder.add(keys[i - 1], container);
+                }
+            } else if (keys[i] < other.keys[j]) {
+                final int next = ContainerAlgebra.gallop(keys, i, keys.length, other.keys[j]);
+
+                if (keepsLeft) {
+                    builder.addAll(this, i, next);
+                }
+
+                i = next;
+            } else {
+                final int next = ContainerAlgebra.gallop(other.keys, j, other.keys.length, keys[i]);
+
+                if (keepsRight) {
+                    builder.addAll(other, j, next);
+                }
+
+                j = next;
+            }
+        }
+
+        if (keepsLeft) {
+            builder.addAll(this, i, keys.length);
+        }
+
+        if (keepsRight) {
+            builder.addAll(other, j, other.keys.length);
+        }
+
+        return builder.build();
+    }
+
+    public long cardinality() {
+        return ranks[containers.length];
+    }
+
+    public boolean isEmpty() {
+        return containers.length == 0;
+    }
+
+    public boolean contains(
+            final long value
+    ) {
+        final int index = Arrays.binarySearch(keys, value >> CHUNK_BITS);
+
+        return index >= 0 && containers[index].contains((int) (value & (CHUNK_SIZE - 1)));
+    }
+
+    /**
+     * @return The value of the given rank, in O(log n).
+     */
+    public long get(
+            final long rank
+    ) {
+        if (rank < 0 || rank >= cardinality()) {
+            throw new IndexOutOfBoundsException("rank " + rank + " is out of bounds for cardinality " + cardinality());
+        }
+
+        final int insertion = Arrays.binarySearch(ranks, rank);
+        final int index = insertion >= 0 ? insertion : -insertion - 2;
+
+        return (keys[index] << CHUNK_BITS) + containers[index].select((int) (rank - ranks[index]));
+    }
+
+    public long[] toArray() {
+        final long[] values = new long[Math.toIntExact(cardinality())];
+        int offset = 0;
+
+        for (int i = 0; i < containers.length; i++) {
+            offset = containers[i].writeTo(keys[i] << CHUNK_BITS, values, offset);
+        }
+
+        return values;
+    }
+
+    /**
+     * @return A view of the values, of which every element is selected in O(log n).
+     */
+    public List<Long> asList() {
+        return new Values();
+    }
+
+    /**
+     * @return The maximal ranges of consecutive numbers, in ascending order, in O(r) for containers of r runs.
+     */
+    public List<NumericRange<Long>> ranges() {
+        final List<NumericRange<Long>> ranges = new ArrayList<>();
+        boolean open = false;
+        long start = 0;
+        long end = 0;
+
+        for (int i = 0; i < containers.length; i++) {
+            final Container.Run run = containers[i].toRun();
+            final long base = keys[i] << CHUNK_BITS;
+
+            for (int r = 0; r < run.runCount(); r++) {
+                final long runStart = base + run.starts()[r];
+
+                if (open && runStart != end + 1) {
+                    ranges.add(NumericRange.of(start, end));
+                    open = false;
+                }
+
+                if (!open) {
+                    start = runStart;
+                    open = true;
+                }
+
+                end = base + run.ends()[r];
+            }
+        }
+
+        if (open) {
+            ranges.add(NumericRange.of(start, end));
+        }
+
+        return unmodifiableList(ranges);
+    }
+
+    @Override
+    public boolean equals(
+            final Object other
+    ) {
+        return other instanceof ContainerSet set
+                && Arrays.equals(keys, set.keys)
+                && Arrays.equals(containers, set.containers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(keys) + Arrays.hashCode(containers);
+    }
+
+    @Override
+    public String toString() {
+        return "ContainerSet[cardinality=" + cardinality() + ", containers=" + containers.length + "]";
+    }
+
+    private static final class Builder {
+
+        private final List<Long> keys = new ArrayList<>();
+        private final List<Container> containers = new ArrayList<>();
+
+        void add(
+                final long key,
+                final Container container
+        ) {
+            keys.add(key);
+            containers.add(container);
+        }
+
+        void addAll(
+                final ContainerSet set,
+                final int from,
+                final int to
+        ) {
+            for (int i = from; i < to; i++) {
+                add(set.keys[i], set.containers[i]);
+            }
+        }
+
+        ContainerSet build() {
+            if (containers.isEmpty()) {
+                return EMPTY;
+            }
+
+            return new ContainerSet(
+                    keys.stream().mapToLong(Long::longValue).toArray(),
+                    containers.toArray(Container[]::new)
+            );
+        }
+
+    }
+
+    private final class Values extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(
+                final int index
+        ) {
+            return ContainerSet.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return Math.toIntExact(cardinality());
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Substring containment between the members of a collection of sequences.
+ */
+public final class Containment {
+
+    private Containment() {
+        // no-op
+    }
+
+    /**
+     * Indexes all sequences at once in a suffix automaton of their concatenation (with a unique separator after every sequence),
+     * in which every state knows the length of the longest sequence it occurs in.
+     * Every sequence is then looked up once, so this is linear in the total length.
+     *
+     * @return For every sequence, whether it occurs in a strictly longer sequence.
+     */
+    public static boolean[] containedInLonger(
+            final List<long[]> sequences
+    ) {
+        final long[] alphabet = Longs.sortedDistinct(sequences.stream()
+                .flatMapToLong(LongStream::of)
+                .toArray()
+        );
+        final int textLength = sequences.stream()
+                .mapToInt(sequence -> sequence.length + 1)
+                .sum();
+
+        final int[] text = new int[textLength];
+        final int[] lengths = new int[textLength];
+        final int[][] patterns = new int[sequences.size()][];
+
+        int position = 0;
+
+        for (int i = 0; i < sequences.size(); i++) {
+            patterns[i] = SuffixArrays.ranks(sequences.get(i), alphabet);
+
+            System.arraycopy(patterns[i], 0, text, position, patterns[i].length);
+            Arrays.fill(lengths, position, position + patterns[i].length, patterns[i].length);
+            position += patterns[i].length;
+
+            text[position++] = alphabet.length + i; // separator
+        }
+
+        final SuffixAutomaton automaton = new SuffixAutomaton(text);
+        final int[] longestContainingSequence = new int[automaton.stateCount()];
+
+        for (int i = 0; i < textLength; i++) {
+            final int state = automaton.prefixState(i);
+            longestContainingSequence[state] = Math.max(longestContainingSequence[state], lengths[i]);
+        }
+
+        // a substring occurs wherever any of its extensions to the left occurs
+        for (final int state : automaton.statesByDecreasingLength()) {
+            final int link = automaton.link(state);
+
+            if (link >= 0) {
+                longestContainingSequence[link] = Math.max(longestContainingSequence[link], longestContainingSequence[state]);
+            }
+        }
+
+        final boolean[] contained = new boolean[sequences.size()];
+
+        for (int i = 0; i < sequences.size(); i++) {
+            contained[i] = longestContainingSequence[automaton.find(patterns[i])] > patterns[i].length;
+        }
+
+        return contained;
+    }
+
+}
@@ -0,0 +1,245 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.Fit;
+import be.gerard.pattern.numeric.Integers;
+import be.gerard.pattern.numeric.PatternMetrics.Analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups a sorted sequence into cycles of which the length divides the pattern length.
+ * <p>
+ * A residue class (modulo a cycle length {@code c}) is cycle-worthy when it has exactly {@code patternLength / c} elements.
+ * The smallest cycle length with a cycle-worthy class wins; its cycle-worthy classes are removed and the rest is grouped again, from the smallest cycle length.
+ * Residue counts for all cycle lengths are kept up-to-date while removing elements, so every round only looks up the first cycle length with a cycle-worthy class.
+ * Like for {@link IncrementGrouping}, every round counts as a level of recursion for the flight recorder event.
+ */
+public final class CycleGrouping {
+
+    private CycleGrouping() {
+        // no-op
+    }
+
+    public static <T extends Number> Set<Fit<T>> groupCycles(
+            final List<T> sequence,
+            final long patternLength
+    ) {
+        if (sequence.isEmpty()) {
+            return Set.of();
+        }
+
+        final AnalysisProbe probe = AnalysisProbe.start(Analysis.GROUP_CYCLES, sequence.size());
+
+        try {
+            return groupCycles(sequence, patternLength, probe);
+        } finally {
+            probe.end();
+        }
+    }
+
+    private static <T extends Number> Set<Fit<T>> groupCycles(
+            final List<T> sequence,
+            final long patternLength,
+            final AnalysisProbe probe
+    ) {
+        final long[] values = Longs.toArray(sequence);
+        final List<ResidueHistogram> histograms = histograms(values, patternLength);
+        final Set<Fit<T>> fits = new HashSet<>();
+
+        int[] remaining = new int[values.length];
+        int remainingCount = values.length;
+
+        for (int i = 0; i < values.length; i++) {
+            remaining[i] = i;
+        }
+
+        for (int depth = 0; remainingCount > 0; depth++) {
+            probe.recursion(depth);
+
+            final ResidueHistogram histogram = histograms.stream()
+                    .filter(ResidueHistogram::hasCycleWorthyResidue)
+                    .findFirst()
+                    .orElse(null);
+
+            if (histogram == null) {
+                fits.add(Fit.none(select(sequence, remaining, remainingCount)));
+                break;
+            }
+
+            final long cycleLength = histogram.cycleLength;
+            final Map<Long, List<T>> cycles = new HashMap<>();
+            final int[] rest = new int[remainingCount];
+            int restCount = 0;
+
+            for (int k = 0; k < remainingCount; k++) {
+                final int i = remaining[k];
+
+                if (histogram.isCycleWorthy(values[i])) {
+                    cycles.computeIfAbsent(values[i] % cycleLength, residue -> new ArrayList<>())
+                            .add(sequence.get(i));
+                } else {
+                    rest[restCount++] = i;
+                }
+            }
+
+            for (final List<T> cycle : cycles.values()) {
+                fits.add(Fit.incremental(List.copyOf(cycle), cycleLength));
+            }
+
+            for (int k = 0, r = 0; k < remainingCount; k++) {
+                if (r < restCount && rest[r] == remaining[k]) {
+                    r++;
+                } else {
+                    for (final ResidueHistogram other : histograms) {
+                        other.remove(values[remaining[k]]);
+                    }
+                }
+            }
+
+            remaining = rest;
+            remainingCount = restCount;
+        }
+
+        probe.candidates(fits.size());
+
+        return Set.copyOf(fits);
+    }
+
+    static <T extends Number> List<T> select(
+            final List<T> sequence,
+            final int[] indices,
+            final int count
+    ) {
+        final List<T> selection = new ArrayList<>(count);
+
+        for (int k = 0; k < count; k++) {
+            selection.add(sequence.get(indices[k]));
+        }
+
+        return List.copyOf(selection);
+    }
+
+    /**
+     * Only the divisors {@code c} of the pattern length with {@code 2 <= patternLength / c <= n} can ever have a cycle-worthy class.
+     *
+     * @return The residue histograms of those cycle lengths, in ascending order.
+     */
+    private static List<ResidueHistogram> histograms(
+            final long[] values,
+            final long patternLength
+    ) {
+        final List<ResidueHistogram> histograms = new ArrayList<>();
+
+        if (patternLength < 2) {
+            return histograms;
+        }
+
+        for (final long cycleLength : Integers.divisors(patternLength)) {
+            final long cycleWorthySize = patternLength / cycleLength;
+
+            if (2 <= cycleWorthySize && cycleWorthySize <= values.length) {
+                final ResidueHistogram histogram = new ResidueHistogram(cycleLength, (int) cycleWorthySize, values.length);
+
+                for (final long value : values) {
+                    histogram.add(value);
+                }
+
+                histograms.add(histogram);
+            }
+        }
+
+        return histograms;
+    }
+
+    /**
+     * Counts per residue ({@code value % cycleLength}, which is negative for negative values) and the number of cycle-worthy residues.
+     * Counts are kept in an array, unless the residues span a range that is much larger than the sequence.
+     */
+    private static final class ResidueHistogram {
+
+        private final long cycleLength;
+        private final int cycleWorthySize;
+        private final int[] counts;
+        private final LongIntMap sparseCounts;
+        private int cycleWorthyResidues = 0;
+
+        private ResidueHistogram(
+                final long cycleLength,
+                final int cycleWorthySize,
+                final int size
+        ) {
+            final long residueRange = 2 * cycleLength - 1;
+
+            this.cycleLength = cycleLength;
+            this.cycleWorthySize = cycleWorthySize;
+            this.counts = residueRange <= Math.max(1024, 4L * size) ? new int[(int) residueRange] : null;
+            this.sparseCounts = counts == null ? new LongIntMap(size) : null;
+        }
+
+        private long key(
+                final long value
+        ) {
+            return value % cycleLength + cycleLength - 1;
+        }
+
+        private int count(
+                final long key
+        ) {
+            if (counts != null) {
+                return counts[(int) key];
+            }
+
+            return Math.max(0, sparseCounts.get(key));
+        }
+
+        private void add(
+                final long value
+        ) {
+            update(key(value), 1);
+        }
+
+        private void remove(
+                final long value
+        ) {
+            update(key(value), -1);
+        }
+
+        private void update(
+                final long key,
+                final int delta
+        ) {
+            final int count = count(key);
+
+            if (count == cycleWorthySize) {
+                cycleWorthyResidues--;
+            }
+
+            if (count + delta == cycleWorthySize) {
+                cycleWorthyResidues++;
+            }
+
+            if (counts != null) {
+                counts[(int) key] = count + delta;
+            } else {
+                sparseCounts.put(key, count + delta);
+            }
+        }
+
+        private boolean hasCycleWorthyResidue() {
+            return cycleWorthyResidues > 0;
+        }
+
+        private boolean isCycleWorthy(
+                final long value
+        ) {
+            return count(key(value)) == cycleWorthySize;
+        }
+
+    }
+
+}
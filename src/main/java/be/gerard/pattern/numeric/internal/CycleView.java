@@ -0,0 +1,69 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Read-only {@link java.util.List} view of a sequence of which the deltas repeat a cycle, elements are computed when they are requested.
+ * <p>
+ * Like a sequence that adds the deltas one by one, the elements wrap around on overflow.
+ */
+public final class CycleView extends AbstractList<Long> implements RandomAccess {
+
+    private final long first;
+    private final long[] offsets;
+    private final int size;
+
+    private CycleView(
+            final long first,
+            final long[] offsets,
+            final int size
+    ) {
+        this.first = first;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * @param cycle the deltas which repeat, at least one
+     */
+    public static CycleView of(
+            final long first,
+            final long[] cycle,
+            final int size
+    ) {
+        notNull(cycle);
+        isTrue(cycle.length > 0);
+        isTrue(size > 0);
+
+        final long[] offsets = new long[cycle.length + 1];
+
+        for (int i = 0; i < cycle.length; i++) {
+            offsets[i + 1] = offsets[i] + cycle[i];
+        }
+
+        return new CycleView(first, offsets, size);
+    }
+
+    @Override
+    public Long get(
+            final int index
+    ) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        final int cycleLength = offsets.length - 1;
+
+        return first + (index / cycleLength) * offsets[cycleLength] + offsets[index % cycleLength];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+}
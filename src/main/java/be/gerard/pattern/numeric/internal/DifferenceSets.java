@@ -0,0 +1,272 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.LongStream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+/**
+ * Distinct differences {@code values[j] - values[i]} (for {@code i < j}) up to a maximum, of a strictly increasing {@code long[]}.
+ * <p>
+ * The pairwise approach visits every pair within the maximum difference, which is O(n^2) for dense values.
+ * Alternatively, the differences are the non-zero terms of the autocorrelation of the indicator vector of the values,
+ * which a number theoretic transform (modulo {@value #MODULUS}) computes in O(R log R), for a range R of values.
+ * Every term counts pairs, so it is less than n and never wraps around the modulus.
+ * The number of pairs within the maximum difference is counted up front, in O(n), to choose the cheapest approach.
+ */
+public final class DifferenceSets {
+
+    static final long MODULUS = 998_244_353L;
+    static final int MAXIMUM_TRANSFORM_LENGTH = 1 << 23;
+
+    private static final long PRIMITIVE_ROOT = 3;
+    private static final int TRANSFORM_COST = 4;
+
+    private DifferenceSets() {
+        // no-op
+    }
+
+    /**
+     * @return A bitmap in which bit {@code d} is set when {@code d} is a difference, for {@code 1 <= d <= maxDifference}.
+     */
+    public static BitSet bitmap(
+            final long[] values,
+            final int size,
+            final long maxDifference
+    ) {
+        final long effectiveMaxDifference = effectiveMaxDifference(values, size, maxDifference);
+
+        isTrue(effectiveMaxDifference < Integer.MAX_VALUE, "differences up to %d do not fit in a bitmap", effectiveMaxDifference);
+
+        if (effectiveMaxDifference <= 0) {
+            return new BitSet();
+        }
+
+        if (isAutocorrelationCheaper(values, size, effectiveMaxDifference)) {
+            return autocorrelation(values, size, effectiveMaxDifference);
+        }
+
+        return pairwise(values, size, effectiveMaxDifference);
+    }
+
+    /**
+     * @return All differences up to {@code maxDifference}, in ascending order.
+     */
+    public static LongStream stream(
+            final long[] values,
+            final int size,
+            final long maxDifference
+    ) {
+        final long effectiveMaxDifference = effectiveMaxDifference(values, size, maxDifference);
+
+        if (effectiveMaxDifference <= 0) {
+            return LongStream.empty();
+        }
+
+        if (isAutocorrelationCheaper(values, size, effectiveMaxDifference)) {
+            return autocorrelation(values, size, effectiveMaxDifference).stream()
+                    .asLongStream();
+        }
+
+        final LongIntMap differences = new LongIntMap(size);
+
+        for (int i = 0; i < size - 1; i++) {
+            for (int j = i + 1; j < size && values[j] - values[i] <= effectiveMaxDifference; j++) {
+                differences.put(values[j] - values[i], 0);
+            }
+        }
+
+        final long[] sortedDifferences = differences.keys();
+        Arrays.sort(sortedDifferences);
+
+        return Arrays.stream(sortedDifferences);
+    }
+
+    /**
+     * No difference exceeds the range of the values, so neither does the maximum difference that matters.
+     */
+    private static long effectiveMaxDifference(
+            final long[] values,
+            final int size,
+            final long maxDifference
+    ) {
+        if (size <= 1) {
+            return 0;
+        }
+
+        return Math.min(maxDifference, values[size - 1] - values[0]);
+    }
+
+    static boolean isAutocorrelationCheaper(
+            final long[] values,
+            final int size,
+            final long maxDifference
+    ) {
+        final long range = values[size - 1] - values[0];
+
+        if (range + maxDifference >= MAXIMUM_TRANSFORM_LENGTH) {
+            return false;
+        }
+
+        final int length = transformLength(range, maxDifference);
+        final long transformCost = (long) TRANSFORM_COST * length * Integer.numberOfTrailingZeros(length);
+
+        return pairCount(values, size, maxDifference) > transformCost;
+    }
+
+    /**
+     * @return The number of pairs of which the difference is at most {@code maxDifference}, counted with two pointers.
+     */
+    static long pairCount(
+            final long[] values,
+            final int size,
+            final long maxDifference
+    ) {
+        long pairCount = 0;
+
+        for (int i = 0, j = 0; i < size; i++) {
+            while (j + 1 < size && values[j + 1] - values[i] <= maxDifference) {
+                j++;
+            }
+
+            pairCount += Math.max(0, j - i);
+        }
+
+        return pairCount;
+    }
+
+    static BitSet pairwise(
+            final long[] values,
+            final int size,
+            final long maxDifference
+    ) {
+        final BitSet differences = new BitSet();
+
+        for (int i = 0; i < size - 1; i++) {
+            for (int j = i + 1; j < size && values[j] - values[i] <= maxDifference; j++) {
+                differences.set((int) (values[j] - values[i]));
+            }
+        }
+
+        return differences;
+    }
+
+    /**
+     * The cyclic autocorrelation equals the linear one up to {@code maxDifference}, as long as the transform is longer than {@code range + maxDifference}.
+     * Since the autocorrelation is symmetric, the product of the transforms is too, so a single forward transform suffices.
+     */
+    static BitSet autocorrelation(
+            final long[] values,
+            final int size,
+            final long maxDifference
+    ) {
+        final long range = values[size - 1] - values[0];
+        final int length = transformLength(range, maxDifference);
+        final int[] terms = new int[length];
+
+        for (int i = 0; i < size; i++) {
+            terms[(int) (values[i] - values[0])] = 1;
+        }
+
+        transform(terms, false);
+
+        for (int k = 0; k <= length / 2; k++) {
+            final int mirror = (length - k) & (length - 1);
+            final int product = (int) ((long) terms[k] * terms[mirror] % MODULUS);
+
+            terms[k] = product;
+            terms[mirror] = product;
+        }
+
+        transform(terms, true);
+
+        final BitSet differences = new BitSet((int) maxDifference + 1);
+
+        for (int difference = 1; difference <= maxDifference; difference++) {
+            if (terms[difference] != 0) {
+                differences.set(difference);
+            }
+        }
+
+        return differences;
+    }
+
+    private static int transformLength(
+            final long range,
+            final long maxDifference
+    ) {
+        return Integer.highestOneBit((int) (range + maxDifference)) << 1;
+    }
+
+    /**
+     * Iterative, in-place Cooley-Tukey transform over the integers modulo {@value #MODULUS}, for a length that is a power of 2.
+     */
+    private static void transform(
+            final int[] terms,
+            final boolean inverse
+    ) {
+        final int length = terms.length;
+
+        for (int i = 1, j = 0; i < length; i++) {
+            int bit = length >> 1;
+
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+
+            j ^= bit;
+
+            if (i < j) {
+                final int term = terms[i];
+                terms[i] = terms[j];
+                terms[j] = term;
+            }
+        }
+
+        for (int half = 1; half < length; half <<= 1) {
+            final long rootOfUnity = power(PRIMITIVE_ROOT, (MODULUS - 1) / (2L * half));
+            final long root = inverse ? power(rootOfUnity, MODULUS - 2) : rootOfUnity;
+
+            for (int start = 0; start < length; start += 2 * half) {
+                long twiddle = 1;
+
+                for (int k = start; k < start + half; k++) {
+                    final long even = terms[k];
+                    final long odd = terms[k + half] * twiddle % MODULUS;
+
+                    terms[k] = (int) ((even + odd) % MODULUS);
+                    terms[k + half] = (int) ((even - odd + MODULUS) % MODULUS);
+                    twiddle = twiddle * root % MODULUS;
+                }
+            }
+        }
+
+        if (inverse) {
+            final long inverseLength = power(length, MODULUS - 2);
+
+            for (int i = 0; i < length; i++) {
+                terms[i] = (int) (terms[i] * inverseLength % MODULUS);
+            }
+        }
+    }
+
+    private static long power(
+            final long base,
+            final long exponent
+    ) {
+        long result = 1;
+        long factor = base % MODULUS;
+
+        for (long remaining = exponent; remaining > 0; remaining >>= 1) {
+            if ((remaining & 1) == 1) {
+                result = result * factor % MODULUS;
+            }
+
+            factor = factor * factor % MODULUS;
+        }
+
+        return result;
+    }
+
+}
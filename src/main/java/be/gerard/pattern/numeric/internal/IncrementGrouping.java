@@ -0,0 +1,152 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.Fit;
+import be.gerard.pattern.numeric.PatternMetrics.Analysis;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decomposes a sorted sequence into arithmetic progressions of the smallest increment.
+ * <p>
+ * Within a residue class ({@code value % increment}, which is negative for negative values), a value is followed by {@code value + increment} if it is present.
+ * On a sorted array, those successors are found with a single two-pointer pass, without grouping by residue.
+ * The values which remain on their own are decomposed again, with their own smallest increment, every round counts as a level of recursion for the flight recorder event.
+ */
+public final class IncrementGrouping {
+
+    private IncrementGrouping() {
+        // no-op
+    }
+
+    /**
+     * @param sequence strictly increasing
+     */
+    public static <T extends Number> Set<Fit<T>> groupCommonIncrements(
+            final List<T> sequence,
+            final long maxIncrement
+    ) {
+        if (sequence.isEmpty()) {
+            return Set.of();
+        }
+
+        final AnalysisProbe probe = AnalysisProbe.start(Analysis.GROUP_COMMON_INCREMENTS, sequence.size());
+
+        try {
+            return groupCommonIncrements(sequence, maxIncrement, probe);
+        } finally {
+            probe.end();
+        }
+    }
+
+    private static <T extends Number> Set<Fit<T>> groupCommonIncrements(
+            final List<T> sequence,
+            final long maxIncrement,
+            final AnalysisProbe probe
+    ) {
+        final long[] values = Longs.toArray(sequence);
+        final Set<Fit<T>> fits = new HashSet<>();
+
+        int[] remaining = new int[values.length];
+        int remainingCount = values.length;
+
+        for (int i = 0; i < values.length; i++) {
+            remaining[i] = i;
+        }
+
+        final int[] successors = new int[values.length];
+        final boolean[] hasPredecessor = new boolean[values.length];
+
+        for (int depth = 0; ; depth++) {
+            probe.recursion(depth);
+
+            final long increment = smallestIncrement(values, remaining, remainingCount);
+
+            if (remainingCount < 2 || increment > maxIncrement) {
+                fits.add(Fit.none(CycleGrouping.select(sequence, remaining, remainingCount)));
+                break;
+            }
+
+            for (int k = 0, successor = 0; k < remainingCount; k++) {
+                final long value = values[remaining[k]];
+
+                while (successor < remainingCount && values[remaining[successor]] < value + increment) {
+                    successor++;
+                }
+
+                final boolean isSuccessor = successor < remainingCount
+                        && values[remaining[successor]] == value + increment
+                        && value % increment == (value + increment) % increment;
+
+                successors[k] = isSuccessor ? successor : -1;
+                hasPredecessor[k] = false;
+            }
+
+            for (int k = 0; k < remainingCount; k++) {
+                if (successors[k] >= 0) {
+                    hasPredecessor[successors[k]] = true;
+                }
+            }
+
+            final int[] deviations = new int[remainingCount];
+            final int[] progression = new int[remainingCount];
+            int deviationCount = 0;
+            int progressionCount = 0;
+
+            for (int k = 0; k < remainingCount; k++) {
+                if (hasPredecessor[k]) {
+                    continue;
+                }
+
+                if (successors[k] < 0) {
+                    deviations[deviationCount++] = remaining[k];
+                    continue;
+                }
+
+                int length = 0;
+
+                for (int next = k; next >= 0; next = successors[next]) {
+                    progression[length++] = remaining[next];
+                }
+
+                fits.add(Fit.incremental(CycleGrouping.select(sequence, progression, length), increment));
+                progressionCount++;
+            }
+
+            if (progressionCount == 0) {
+                fits.add(Fit.none(CycleGrouping.select(sequence, remaining, remainingCount)));
+                break;
+            }
+
+            if (deviationCount == 0) {
+                break;
+            }
+
+            remaining = deviations;
+            remainingCount = deviationCount;
+        }
+
+        probe.candidates(fits.size());
+
+        return Set.copyOf(fits);
+    }
+
+    /**
+     * @return The smallest difference between consecutive values, or {@link Long#MAX_VALUE} for less than 2 values.
+     */
+    private static long smallestIncrement(
+            final long[] values,
+            final int[] indices,
+            final int count
+    ) {
+        long smallestIncrement = Long.MAX_VALUE;
+
+        for (int k = 1; k < count; k++) {
+            smallestIncrement = Math.min(smallestIncrement, values[indices[k]] - values[indices[k - 1]]);
+        }
+
+        return smallestIncrement;
+    }
+
+}
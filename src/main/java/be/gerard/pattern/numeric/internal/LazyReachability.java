@@ -0,0 +1,35 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.ReachabilityIndex;
+
+import java.util.function.Supplier;
+
+/**
+ * The reachability index of a pattern, which is built on the first query and reused by all later queries.
+ * <p>
+ * An index only has final fields, so it is safely published without a lock:
+ * threads which query it for the first time at once may each build it, but they all get an equal index.
+ */
+final class LazyReachability {
+
+    private final Supplier<ReachabilityIndex> build;
+    private ReachabilityIndex index;
+
+    LazyReachability(
+            final Supplier<ReachabilityIndex> build
+    ) {
+        this.build = build;
+    }
+
+    ReachabilityIndex get() {
+        ReachabilityIndex result = index;
+
+        if (result == null) {
+            result = build.get();
+            index = result;
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,125 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.LongStream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Read-only {@link List} view over a range of a {@code long[]}, elements are only boxed when they are requested.
+ */
+public final class LongArrayView extends AbstractList<Long> implements RandomAccess {
+
+    private final long[] values;
+    private final int fromIndex;
+    private final int toIndex;
+
+    private LongArrayView(
+            final long[] values,
+            final int fromIndex,
+            final int toIndex
+    ) {
+        this.values = values;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    public static LongArrayView of(
+            final long[] values
+    ) {
+        notNull(values);
+
+        return new LongArrayView(values, 0, values.length);
+    }
+
+    public static LongArrayView of(
+            final long[] values,
+            final int fromIndex,
+            final int toIndex
+    ) {
+        notNull(values);
+        isTrue(0 <= fromIndex && fromIndex <= toIndex && toIndex <= values.length);
+
+        return new LongArrayView(values, fromIndex, toIndex);
+    }
+
+    @Override
+    public Long get(
+            final int index
+    ) {
+        return getLong(index);
+    }
+
+    public long getLong(
+            final int index
+    ) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return values[fromIndex + index];
+    }
+
+    @Override
+    public int size() {
+        return toIndex - fromIndex;
+    }
+
+    @Override
+    public LongArrayView subList(
+            final int fromIndex,
+            final int toIndex
+    ) {
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > size()) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size());
+        }
+
+        return new LongArrayView(values, this.fromIndex + fromIndex, this.fromIndex + toIndex);
+    }
+
+    public long[] toLongArray() {
+        return Arrays.copyOfRange(values, fromIndex, toIndex);
+    }
+
+    /**
+     * Same as {@link Arrays#mismatch(long[], int, int, long[], int, int)}, which compares many values at once.
+     *
+     * @return The index of the first value which differs, the size of the shortest view when one is a prefix of the other, or -1 when they are equal.
+     */
+    public int mismatch(
+            final LongArrayView other
+    ) {
+        return Arrays.mismatch(values, fromIndex, toIndex, other.values, other.fromIndex, other.toIndex);
+    }
+
+    public LongStream longStream() {
+        return Arrays.stream(values, fromIndex, toIndex);
+    }
+
+    @Override
+    public boolean equals(
+            final Object other
+    ) {
+        if (other instanceof LongArrayView view) {
+            return Arrays.equals(values, fromIndex, toIndex, view.values, view.fromIndex, view.toIndex);
+        }
+
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            hashCode = 31 * hashCode + Long.hashCode(values[i]);
+        }
+
+        return hashCode;
+    }
+
+}
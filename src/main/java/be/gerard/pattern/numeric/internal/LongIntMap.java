@@ -0,0 +1,114 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from non-negative {@code long} keys to non-negative {@code int} values, without boxing.
+ */
+public final class LongIntMap {
+
+    public static final int MISSING = -1;
+
+    private static final long EMPTY = -1L;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+    private int shift;
+
+    public LongIntMap(
+            final int expectedSize
+    ) {
+        final int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+
+        allocate(capacity);
+    }
+
+    private void allocate(
+            final int capacity
+    ) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.shift = Long.numberOfLeadingZeros(capacity - 1L);
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private int slot(
+            final long key
+    ) {
+        final int mask = keys.length - 1;
+        int slot = (int) ((key * GOLDEN_RATIO) >>> shift) & mask;
+
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * @return The value of {@code key}, or {@link #MISSING}.
+     */
+    public int get(
+            final long key
+    ) {
+        final int slot = slot(key);
+
+        return keys[slot] == EMPTY ? MISSING : values[slot];
+    }
+
+    public void put(
+            final long key,
+            final int value
+    ) {
+        final int slot = slot(key);
+
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+
+        values[slot] = value;
+
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+
+        allocate(oldKeys.length * 2);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                final int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return All keys, in no particular order.
+     */
+    public long[] keys() {
+        final long[] presentKeys = new long[size];
+        int count = 0;
+
+        for (final long key : keys) {
+            if (key != EMPTY) {
+                presentKeys[count++] = key;
+            }
+        }
+
+        return presentKeys;
+    }
+
+}
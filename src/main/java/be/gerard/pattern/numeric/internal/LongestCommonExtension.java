@@ -0,0 +1,88 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+
+/**
+ * O(1) longest common extension queries on a text, in both directions, after O(n log n) preprocessing.
+ */
+public final class LongestCommonExtension {
+
+    private final int length;
+    private final int[] inverse;
+    private final RangeMaximum negatedLongestCommonPrefixes;
+    private final int[] reversedInverse;
+    private final RangeMaximum negatedReversedLongestCommonPrefixes;
+
+    public LongestCommonExtension(
+            final int[] text,
+            final int alphabetSize
+    ) {
+        final int[] reversedText = new int[text.length];
+
+        for (int i = 0; i < text.length; i++) {
+            reversedText[text.length - 1 - i] = text[i];
+        }
+
+        final int[] suffixArray = SuffixArrays.suffixArray(text, alphabetSize);
+        final int[] reversedSuffixArray = SuffixArrays.suffixArray(reversedText, alphabetSize);
+
+        this.length = text.length;
+        this.inverse = SuffixArrays.inverse(suffixArray);
+        this.negatedLongestCommonPrefixes = new RangeMaximum(negate(SuffixArrays.longestCommonPrefixes(text, suffixArray)));
+        this.reversedInverse = SuffixArrays.inverse(reversedSuffixArray);
+        this.negatedReversedLongestCommonPrefixes = new RangeMaximum(negate(SuffixArrays.longestCommonPrefixes(reversedText, reversedSuffixArray)));
+    }
+
+    private static int[] negate(
+            final int[] values
+    ) {
+        return Arrays.stream(values)
+                .map(value -> -value)
+                .toArray();
+    }
+
+    /**
+     * @return The length of the longest common prefix of the suffixes starting at {@code i} and {@code j}.
+     */
+    public int forward(
+            final int i,
+            final int j
+    ) {
+        return extension(i, j, inverse, negatedLongestCommonPrefixes);
+    }
+
+    /**
+     * @return The length of the longest common suffix of the prefixes ending at (and including) {@code i} and {@code j}.
+     */
+    public int backward(
+            final int i,
+            final int j
+    ) {
+        if (i < 0 || j < 0) {
+            return 0;
+        }
+
+        return extension(length - 1 - i, length - 1 - j, reversedInverse, negatedReversedLongestCommonPrefixes);
+    }
+
+    private int extension(
+            final int i,
+            final int j,
+            final int[] inverse,
+            final RangeMaximum negatedLongestCommonPrefixes
+    ) {
+        if (i >= length || j >= length) {
+            return 0;
+        }
+
+        if (i == j) {
+            return length - i;
+        }
+
+        final int from = Math.min(inverse[i], inverse[j]) + 1;
+        final int to = Math.max(inverse[i], inverse[j]) + 1;
+
+        return -negatedLongestCommonPrefixes.maximum(from, to);
+    }
+
+}
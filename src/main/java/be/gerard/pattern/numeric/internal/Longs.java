@@ -0,0 +1,81 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+public final class Longs {
+
+    private Longs() {
+        // no-op
+    }
+
+    public static long[] toArray(
+            final Collection<? extends Number> numbers
+    ) {
+        if (numbers instanceof LongArrayView view) {
+            return view.toLongArray();
+        }
+
+        if (numbers instanceof MappedLongs mapped) {
+            return mapped.toLongArray();
+        }
+
+        return numbers.stream()
+                .mapToLong(Number::longValue)
+                .toArray();
+    }
+
+    /**
+     * Same as {@code numbers.get(index).longValue()}, without boxing for views of primitive values.
+     */
+    public static long get(
+            final List<? extends Number> numbers,
+            final int index
+    ) {
+        if (numbers instanceof LongArrayView view) {
+            return view.getLong(index);
+        }
+
+        if (numbers instanceof MappedLongs mapped) {
+            return mapped.getLong(index);
+        }
+
+        return numbers.get(index).longValue();
+    }
+
+    public static long[] sortedDistinct(
+            final long[] values
+    ) {
+        final long[] sortedValues = Arrays.copyOf(values, values.length);
+        Arrays.sort(sortedValues);
+
+        int size = 0;
+
+        for (int i = 0; i < sortedValues.length; i++) {
+            if (size == 0 || sortedValues[size - 1] != sortedValues[i]) {
+                sortedValues[size++] = sortedValues[i];
+            }
+        }
+
+        return size == sortedValues.length ? sortedValues : Arrays.copyOf(sortedValues, size);
+    }
+
+    public static long[] deltas(
+            final long[] values,
+            final int size
+    ) {
+        if (size <= 1) {
+            return new long[0];
+        }
+
+        final long[] deltas = new long[size - 1];
+
+        for (int i = 1; i < size; i++) {
+            deltas[i - 1] = values[i] - values[i - 1];
+        }
+
+        return deltas;
+    }
+
+}
@@ -0,0 +1,145 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Read-only {@link List} view over a file of little-endian {@code long}s, which is memory-mapped instead of read.
+ * <p>
+ * A single mapping is limited to 2 GiB, so the file is mapped in chunks of {@code 2^27} longs.
+ * Elements are only read (and boxed) when they are requested, and reading is thread-safe, since it never moves the position of a buffer.
+ */
+public final class MappedLongs extends AbstractList<Long> implements RandomAccess {
+
+    static final int CHUNK_SHIFT = 27;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final LongBuffer[] chunks;
+    private final int size;
+
+    private MappedLongs(
+            final LongBuffer[] chunks,
+            final int size
+    ) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * The mappings remain valid after the file is closed, until they are garbage collected.
+     *
+     * @throws IllegalArgumentException when the file does not consist of whole longs, or has more than {@link Integer#MAX_VALUE} of them.
+     */
+    public static MappedLongs of(
+            final Path path
+    ) throws IOException {
+        notNull(path);
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long byteCount = channel.size();
+
+            isTrue(byteCount % Long.BYTES == 0, "%s does not consist of whole longs: %d bytes", path, byteCount);
+            isTrue(byteCount / Long.BYTES <= Integer.MAX_VALUE, "%s has more than %d longs", path, Integer.MAX_VALUE);
+
+            final int size = (int) (byteCount / Long.BYTES);
+            final LongBuffer[] chunks = new LongBuffer[(int) ((size + (long) CHUNK_MASK) >>> CHUNK_SHIFT)];
+
+            for (int i = 0; i < chunks.length; i++) {
+                final long fromIndex = (long) i << CHUNK_SHIFT;
+                final long toIndex = Math.min(size, fromIndex + CHUNK_SIZE);
+
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, fromIndex * Long.BYTES, (toIndex - fromIndex) * Long.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asLongBuffer();
+            }
+
+            return new MappedLongs(chunks, size);
+        }
+    }
+
+    @Override
+    public Long get(
+            final int index
+    ) {
+        return getLong(index);
+    }
+
+    public long getLong(
+            final int index
+    ) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies all elements, chunk by chunk.
+     */
+    public long[] toLongArray() {
+        final long[] values = new long[size];
+
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i].get(0, values, i << CHUNK_SHIFT, chunks[i].limit());
+        }
+
+        return values;
+    }
+
+    public LongStream longStream() {
+        return IntStream.range(0, size)
+                .mapToLong(this::getLong);
+    }
+
+    /**
+     * @return A view of the differences between consecutive elements, which are computed when they are requested.
+     */
+    public List<Long> deltas() {
+        return new Deltas(this);
+    }
+
+    private static final class Deltas extends AbstractList<Long> implements RandomAccess {
+
+        private final MappedLongs values;
+
+        private Deltas(
+                final MappedLongs values
+        ) {
+            this.values = values;
+        }
+
+        @Override
+        public Long get(
+                final int index
+        ) {
+            return values.getLong(index + 1) - values.getLong(index);
+        }
+
+        @Override
+        public int size() {
+            return Math.max(0, values.size() - 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.NumericPattern;
+
+import java.util.Arrays;
+
+/**
+ * The arrays behind {@link be.gerard.pattern.numeric.NumericPatternBuilder}: the values, their deltas and the prefix function of the deltas.
+ * <p>
+ * Snapshots share the arrays, which are only ever written beyond the size of any snapshot,
+ * so they are handed to the patterns without copying or validating them, and without exposing them.
+ */
+public final class PatternAppender {
+
+    static final int INITIAL_CAPACITY = 16;
+
+    private long[] values = new long[INITIAL_CAPACITY];
+    private long[] deltas = new long[INITIAL_CAPACITY];
+    private int[] prefixFunction = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    private boolean sorted = true;
+
+    public void append(
+            final long value
+    ) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+
+        values[size] = value;
+
+        if (size > 0) {
+            appendDelta(value - values[size - 1]);
+            sorted &= value > values[size - 1];
+        }
+
+        size++;
+    }
+
+    private void appendDelta(
+            final long delta
+    ) {
+        final int index = size - 1;
+
+        if (index == deltas.length) {
+            deltas = Arrays.copyOf(deltas, index * 2);
+            prefixFunction = Arrays.copyOf(prefixFunction, index * 2);
+        }
+
+        deltas[index] = delta;
+        prefixFunction[index] = index == 0 ? 0 : Periods.nextBorder(deltas, prefixFunction, index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * @return The length of the shortest repeating cycle of the deltas, or 0 when there are less than 2 values.
+     */
+    public int shortestCycleLength() {
+        if (size <= 1) {
+            return 0;
+        }
+
+        final int deltaCount = size - 1;
+
+        return deltaCount - prefixFunction[deltaCount - 1];
+    }
+
+    public NumericPattern<Long> shortestRepeatingCycle() {
+        if (size <= 1) {
+            return NumericPattern.empty();
+        }
+
+        return SequenceUnsortedLong.trusted(deltas, shortestCycleLength());
+    }
+
+    public NumericPattern<Long> deltas() {
+        if (size <= 1) {
+            return NumericPattern.empty();
+        }
+
+        return SequenceUnsortedLong.trusted(deltas, size - 1);
+    }
+
+    public NumericPattern<Long> snapshot() {
+        if (size == 0) {
+            return NumericPattern.empty();
+        }
+
+        if (sorted) {
+            return SequenceSortedLong.trusted(values, size);
+        }
+
+        return SequenceUnsortedLong.trusted(values, size);
+    }
+
+}
@@ -0,0 +1,68 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.SortedNumericPattern;
+import be.gerard.pattern.numeric.UnsortedNumericPattern;
+
+/**
+ * Patterns are equal when their sequences are, whatever their implementation, as long as they are both sorted or both unsorted.
+ * <p>
+ * Unbounded cyclic patterns present fewer elements than they have, so their element count has to be equal as well.
+ * Sorted patterns are hashed by their element count and their first and last elements, so that cyclic patterns are not enumerated to hash them.
+ */
+final class PatternEquality {
+
+    private PatternEquality() {
+        // no-op
+    }
+
+    static boolean equals(
+            final SortedNumericPattern<?> pattern,
+            final Object other
+    ) {
+        if (pattern == other) {
+            return true;
+        }
+
+        if (!(other instanceof SortedNumericPattern<?> sorted) || elementCount(pattern) != elementCount(sorted)) {
+            return false;
+        }
+
+        return pattern.size() == 0
+                || pattern.first().equals(sorted.first())
+                && pattern.last().equals(sorted.last())
+                && pattern.sequence().equals(sorted.sequence());
+    }
+
+    static int hashCode(
+            final SortedNumericPattern<?> pattern
+    ) {
+        if (pattern.size() == 0) {
+            return 0;
+        }
+
+        return 31 * (31 * Long.hashCode(elementCount(pattern)) + Long.hashCode(pattern.first().longValue())) + Long.hashCode(pattern.last().longValue());
+    }
+
+    static boolean equals(
+            final UnsortedNumericPattern<?> pattern,
+            final Object other
+    ) {
+        return pattern == other
+                || other instanceof UnsortedNumericPattern<?> unsorted
+                && pattern.size() == unsorted.size()
+                && pattern.sequence().equals(unsorted.sequence());
+    }
+
+    static int hashCode(
+            final UnsortedNumericPattern<?> pattern
+    ) {
+        return pattern.sequence().hashCode();
+    }
+
+    private static long elementCount(
+            final SortedNumericPattern<?> pattern
+    ) {
+        return pattern instanceof SequenceCyclic cyclic ? cyclic.elementCount() : pattern.size();
+    }
+
+}
@@ -0,0 +1,99 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+
+/**
+ * Periodicity of a sequence, derived from its KMP prefix function in linear time.
+ * <p>
+ * A period {@code p} of a sequence {@code s} is a length for which {@code s[i] == s[i % p]} holds for every index,
+ * i.e. the sequence is a (partial) repetition of its prefix of length {@code p}.
+ * The length of the sequence itself is always a period.
+ */
+public final class Periods {
+
+    private Periods() {
+        // no-op
+    }
+
+    /**
+     * @return For every index {@code i}, the length of the longest proper prefix of {@code values[0..i]} that is also a suffix of it.
+     */
+    public static int[] prefixFunction(
+            final long[] values
+    ) {
+        return prefixFunction(values, values.length);
+    }
+
+    public static int[] prefixFunction(
+            final long[] values,
+            final int size
+    ) {
+        final int[] prefixFunction = new int[size];
+
+        for (int i = 1; i < size; i++) {
+            prefixFunction[i] = nextBorder(values, prefixFunction, i);
+        }
+
+        return prefixFunction;
+    }
+
+    /**
+     * Extends the prefix function with index {@code i}, given that all previous indices are already known.
+     * This is amortized O(1), which allows sequences to be extended one element at a time.
+     */
+    public static int nextBorder(
+            final long[] values,
+            final int[] prefixFunction,
+            final int i
+    ) {
+        int border = prefixFunction[i - 1];
+
+        while (border > 0 && values[i] != values[border]) {
+            border = prefixFunction[border - 1];
+        }
+
+        return values[i] == values[border] ? border + 1 : border;
+    }
+
+    /**
+     * @return The shortest period, or 0 for an empty sequence.
+     */
+    public static int shortestPeriod(
+            final long[] values
+    ) {
+        if (values.length == 0) {
+            return 0;
+        }
+
+        final int[] prefixFunction = prefixFunction(values);
+
+        return values.length - prefixFunction[values.length - 1];
+    }
+
+    /**
+     * @return All periods in ascending order, the last one being the length of the sequence.
+     */
+    public static int[] allPeriods(
+            final long[] values
+    ) {
+        if (values.length == 0) {
+            return new int[0];
+        }
+
+        final int[] prefixFunction = prefixFunction(values);
+        final int[] periods = new int[values.length];
+
+        int count = 0;
+        int border = prefixFunction[values.length - 1];
+
+        while (border > 0) {
+            periods[count++] = values.length - border;
+            border = prefixFunction[border - 1];
+        }
+
+        periods[count++] = values.length;
+
+        return Arrays.copyOf(periods, count);
+    }
+
+}
@@ -0,0 +1,47 @@
+package be.gerard.pattern.numeric.internal;
+
+/**
+ * Sparse table for O(1) range maximum queries on a static array, after O(n log n) preprocessing.
+ */
+public final class RangeMaximum {
+
+    private final int[][] table;
+
+    public RangeMaximum(
+            final int[] values
+    ) {
+        final int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(values.length));
+
+        this.table = new int[levels][];
+        this.table[0] = values.clone();
+
+        for (int level = 1; level < levels; level++) {
+            final int width = 1 << level;
+            final int[] previous = table[level - 1];
+            final int[] current = new int[values.length - width + 1];
+
+            for (int i = 0; i < current.length; i++) {
+                current[i] = Math.max(previous[i], previous[i + (width >> 1)]);
+            }
+
+            table[level] = current;
+        }
+    }
+
+    /**
+     * @return The maximum of the values in {@code [from, to)}, or {@link Integer#MIN_VALUE} for an empty range.
+     */
+    public int maximum(
+            final int from,
+            final int to
+    ) {
+        if (from >= to) {
+            return Integer.MIN_VALUE;
+        }
+
+        final int level = 31 - Integer.numberOfLeadingZeros(to - from);
+
+        return Math.max(table[level][from], table[level][to - (1 << level)]);
+    }
+
+}
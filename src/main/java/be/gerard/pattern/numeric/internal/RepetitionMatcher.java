@@ -0,0 +1,125 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Longest repetitions of candidate subsequences, for every start index of a sequence in a single pass per candidate.
+ * <p>
+ * A repetition of a candidate of length {@code m}, starting from any rotation, is a substring of its infinite repetition.
+ * Up to length {@code m} that is a substring of the candidate repeated twice, which follows from the matching statistics against a suffix automaton.
+ * Once the first {@code m} elements fit, the repetition continues as long as every element equals the one {@code m} before it.
+ * Elements are compared by {@link Object#equals(Object)}.
+ */
+public final class RepetitionMatcher {
+
+    private static final int UNKNOWN_SYMBOL = -1;
+
+    private final Map<Object, Integer> symbols = new HashMap<>();
+    private final int[] text;
+    private final int[] reversedText;
+
+    /**
+     * @param candidates index per start index of the best candidate, only relevant when its length is positive
+     * @param lengths    length per start index of the longest repetition
+     */
+    public record Matches(
+            int[] candidates,
+            int[] lengths
+    ) {
+    }
+
+    public RepetitionMatcher(
+            final List<?> sequence
+    ) {
+        final int n = sequence.size();
+
+        this.text = new int[n];
+        this.reversedText = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            text[i] = symbols.computeIfAbsent(sequence.get(i), element -> symbols.size());
+            reversedText[n - 1 - i] = text[i];
+        }
+    }
+
+    /**
+     * @return For every start index, the length of the longest repetition of {@code candidate} (from any rotation).
+     */
+    public int[] longestRepetitions(
+            final List<?> candidate
+    ) {
+        final int n = text.length;
+        final int m = candidate.size();
+        final int[] lengths = new int[n];
+
+        if (m == 0) {
+            return lengths;
+        }
+
+        final int[] reversedDoubledCandidate = new int[2 * m];
+
+        for (int k = 0; k < 2 * m; k++) {
+            reversedDoubledCandidate[k] = symbols.getOrDefault(candidate.get((2 * m - 1 - k) % m), UNKNOWN_SYMBOL);
+        }
+
+        // matching statistics of the reversed text are the longest substrings starting at every index of the text
+        final int[] matchingStatistics = new SuffixAutomaton(reversedDoubledCandidate).matchingStatistics(reversedText);
+        int periodicExtension = 0;
+
+        for (int i = n - 1; i >= 0; i--) {
+            periodicExtension = i + m < n && text[i] == text[i + m] ? periodicExtension + 1 : 0;
+
+            final int match = matchingStatistics[n - 1 - i];
+            lengths[i] = match >= m ? m + periodicExtension : match;
+        }
+
+        return lengths;
+    }
+
+    /**
+     * @return Whether any rotation of {@code candidate} occurs, in O(n + m).
+     */
+    public boolean containsRotation(
+            final List<?> candidate
+    ) {
+        return !candidate.isEmpty() && Arrays.stream(longestRepetitions(candidate))
+                .anyMatch(length -> length >= candidate.size());
+    }
+
+    /**
+     * For every start index, the longest repetition of all candidates.
+     * Ties are resolved in favour of the longest candidate, and then the first one.
+     */
+    public Matches longestRepetitions(
+            final List<? extends List<?>> candidates,
+            final boolean parallel
+    ) {
+        final IntStream candidateIndices = IntStream.range(0, candidates.size());
+        final List<int[]> allLengths = (parallel ? candidateIndices.parallel() : candidateIndices)
+                .mapToObj(candidateIndex -> longestRepetitions(candidates.get(candidateIndex)))
+                .toList();
+
+        final int[] bestCandidates = new int[text.length];
+        final int[] bestLengths = new int[text.length];
+
+        for (int candidateIndex = 0; candidateIndex < candidates.size(); candidateIndex++) {
+            final int[] lengths = allLengths.get(candidateIndex);
+            final int candidateSize = candidates.get(candidateIndex).size();
+
+            for (int i = 0; i < text.length; i++) {
+                if (lengths[i] > bestLengths[i]
+                        || lengths[i] == bestLengths[i] && lengths[i] > 0 && candidateSize > candidates.get(bestCandidates[i]).size()) {
+                    bestCandidates[i] = candidateIndex;
+                    bestLengths[i] = lengths[i];
+                }
+            }
+        }
+
+        return new Matches(bestCandidates, bestLengths);
+    }
+
+}
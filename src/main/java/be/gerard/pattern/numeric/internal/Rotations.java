@@ -0,0 +1,139 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Cyclic rotations of a sequence, without materializing them.
+ */
+public final class Rotations {
+
+    private Rotations() {
+        // no-op
+    }
+
+    /**
+     * Booth's algorithm, O(n).
+     *
+     * @return The offset at which the lexicographically smallest rotation starts, or 0 for an empty sequence.
+     */
+    public static int leastRotation(
+            final long[] values
+    ) {
+        final int n = values.length;
+
+        if (n == 0) {
+            return 0;
+        }
+
+        final int[] failure = new int[2 * n];
+        Arrays.fill(failure, -1);
+
+        int offset = 0;
+
+        for (int j = 1; j < 2 * n; j++) {
+            final long value = values[j % n];
+            int i = failure[j - offset - 1];
+
+            while (i != -1 && value != values[(offset + i + 1) % n]) {
+                if (value < values[(offset + i + 1) % n]) {
+                    offset = j - i - 1;
+                }
+
+                i = failure[i];
+            }
+
+            if (i == -1 && value != values[(offset + i + 1) % n]) {
+                if (value < values[(offset + i + 1) % n]) {
+                    offset = j;
+                }
+
+                failure[j - offset] = -1;
+            } else {
+                failure[j - offset] = i + 1;
+            }
+        }
+
+        return offset % n;
+    }
+
+    /**
+     * @return The number of distinct rotations, which is the smallest period that divides the length of the sequence.
+     */
+    public static int distinctRotationCount(
+            final long[] values
+    ) {
+        final int shortestPeriod = Periods.shortestPeriod(values);
+
+        return shortestPeriod > 0 && values.length % shortestPeriod == 0 ? shortestPeriod : values.length;
+    }
+
+    /**
+     * @return A read-only view of {@code sequence}, starting at {@code offset} and wrapping around.
+     */
+    public static <T> List<T> rotate(
+            final List<T> sequence,
+            final int offset
+    ) {
+        notNull(sequence);
+        isTrue(sequence.isEmpty() ? offset == 0 : 0 <= offset && offset < sequence.size());
+
+        if (offset == 0) {
+            return sequence;
+        }
+
+        return new Rotation<>(sequence, offset);
+    }
+
+    /**
+     * @return All distinct rotations of {@code sequence}, each exactly once and in order of their offset.
+     */
+    public static <T> Stream<List<T>> distinctRotations(
+            final List<T> sequence,
+            final long[] values
+    ) {
+        return IntStream.range(0, distinctRotationCount(values))
+                .mapToObj(offset -> rotate(sequence, offset));
+    }
+
+    private static final class Rotation<T> extends AbstractList<T> implements RandomAccess {
+
+        private final List<T> sequence;
+        private final int offset;
+
+        private Rotation(
+                final List<T> sequence,
+                final int offset
+        ) {
+            this.sequence = sequence;
+            this.offset = offset;
+        }
+
+        @Override
+        public T get(
+                final int index
+        ) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            final int rotatedIndex = offset + index;
+
+            return sequence.get(rotatedIndex < size() ? rotatedIndex : rotatedIndex - size());
+        }
+
+        @Override
+        public int size() {
+            return sequence.size();
+        }
+
+    }
+
+}
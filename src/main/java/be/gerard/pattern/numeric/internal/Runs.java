@@ -0,0 +1,244 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+/**
+ * Maximal repetitions of a sequence.
+ * <p>
+ * A maximal repetition is a subsequence with smallest period {@code p} and a length of more than {@code p},
+ * that cannot be extended to the left or to the right without breaking that period.
+ * Runs are the maximal repetitions of which the period fits at least twice.
+ */
+public final class Runs {
+
+    private Runs() {
+        // no-op
+    }
+
+    /**
+     * @param start  inclusive
+     * @param end    exclusive
+     * @param period the smallest period
+     */
+    public record Run(
+            int start,
+            int end,
+            int period
+    ) {
+
+        public Run {
+            isTrue(0 <= start && start + period < end);
+            isTrue(period > 0);
+        }
+
+        public int length() {
+            return end - start;
+        }
+
+        public double exponent() {
+            return (double) length() / period;
+        }
+
+    }
+
+    /**
+     * Every run has a Lyndon root (w.r.t. the natural or the inverted order of the values)
+     * which is the longest Lyndon word starting at its position (runs theorem, Bannai et al.).
+     * Extending every longest Lyndon word with longest common extensions in both directions reports all of them, in O(n log n).
+     *
+     * @return All runs, ordered by start and period.
+     */
+    public static List<Run> of(
+            final long[] values
+    ) {
+        final long[] alphabet = Longs.sortedDistinct(values);
+        final int[] text = SuffixArrays.ranks(values, alphabet);
+
+        return of(text, alphabet.length, new LongestCommonExtension(text, alphabet.length));
+    }
+
+    private static List<Run> of(
+            final int[] text,
+            final int alphabetSize,
+            final LongestCommonExtension extension
+    ) {
+        final int n = text.length;
+        final int[] invertedText = Arrays.stream(text)
+                .map(rank -> alphabetSize - 1 - rank)
+                .toArray();
+
+        final List<Run> runs = new ArrayList<>();
+
+        for (final int[] orderedText : List.of(text, invertedText)) {
+            final int[] lyndonEnds = lyndonEnds(orderedText, alphabetSize);
+
+            for (int i = 0; i < n; i++) {
+                final int j = lyndonEnds[i];
+                final int period = j - i;
+                final int start = i - extension.backward(i - 1, j - 1);
+                final int end = j + extension.forward(i, j);
+
+                if (end - start >= 2 * period) {
+                    runs.add(new Run(start, end, period));
+                }
+            }
+        }
+
+        return runs.stream()
+                .distinct()
+                .sorted(Comparator.comparingInt(Run::start).thenComparingInt(Run::period))
+                .toList();
+    }
+
+    /**
+     * @return For every position, the exclusive end of the longest Lyndon word starting there.
+     */
+    private static int[] lyndonEnds(
+            final int[] text,
+            final int alphabetSize
+    ) {
+        final int n = text.length;
+        final int[] inverse = SuffixArrays.inverse(SuffixArrays.suffixArray(text, alphabetSize));
+        final int[] lyndonEnds = new int[n];
+
+        for (int i = n - 1; i >= 0; i--) {
+            int j = i + 1;
+
+            while (j < n && inverse[j] > inverse[i]) {
+                j = lyndonEnds[j];
+            }
+
+            lyndonEnds[i] = j;
+        }
+
+        return lyndonEnds;
+    }
+
+    /**
+     * Runs are completed with the maximal repetitions of which the period fits less than twice.
+     * Those start at a pair of equal values that cannot be extended to the left,
+     * so this is O(n log n) plus the number of pairs of equal values.
+     *
+     * @return All maximal repetitions, ordered by start and period.
+     */
+    public static List<Run> maximalRepetitions(
+            final long[] values
+    ) {
+        final int n = values.length;
+        final long[] alphabet = Longs.sortedDistinct(values);
+        final int[] text = SuffixArrays.ranks(values, alphabet);
+        final LongestCommonExtension extension = new LongestCommonExtension(text, alphabet.length);
+
+        final List<Run> runs = of(text, alphabet.length, extension);
+        final List<Run> candidates = new ArrayList<>();
+
+        for (final int[] positions : positionsByRank(text, alphabet.length)) {
+            for (int a = 0; a < positions.length; a++) {
+                for (int b = a + 1; b < positions.length; b++) {
+                    final int i = positions[a];
+                    final int j = positions[b];
+
+                    if (i > 0 && text[i - 1] == text[j - 1]) {
+                        continue; // not left-maximal
+                    }
+
+                    final int period = j - i;
+                    final int overlap = extension.forward(i, j);
+
+                    if (overlap < period) {
+                        candidates.add(new Run(i, j + overlap, period));
+                    }
+                }
+            }
+        }
+
+        // a candidate is only a maximal repetition when no shorter period holds for it,
+        // i.e. when it is not contained in a maximal repetition with a shorter period
+        final List<Run> repetitions = new ArrayList<>(runs);
+        final List<Run> blocks = new ArrayList<>(runs.size() + candidates.size());
+        blocks.addAll(runs);
+        blocks.addAll(candidates);
+        blocks.sort(Comparator.comparingInt(Run::period));
+
+        final int[] maximumEnds = new int[n + 1]; // Fenwick tree: maximum end of all blocks starting at or before a position
+
+        for (int from = 0; from < blocks.size(); ) {
+            int to = from;
+
+            while (to < blocks.size() && blocks.get(to).period() == blocks.get(from).period()) {
+                to++;
+            }
+
+            for (int i = from; i < to; i++) {
+                final Run block = blocks.get(i);
+
+                if (block.length() < 2 * block.period() && maximumEnd(maximumEnds, block.start()) < block.end()) {
+                    repetitions.add(block);
+                }
+            }
+
+            for (int i = from; i < to; i++) {
+                updateMaximumEnd(maximumEnds, blocks.get(i).start(), blocks.get(i).end());
+            }
+
+            from = to;
+        }
+
+        return repetitions.stream()
+                .sorted(Comparator.comparingInt(Run::start).thenComparingInt(Run::period))
+                .toList();
+    }
+
+    private static int[][] positionsByRank(
+            final int[] text,
+            final int alphabetSize
+    ) {
+        final int[] counts = new int[alphabetSize];
+
+        for (final int rank : text) {
+            counts[rank]++;
+        }
+
+        final int[][] positions = new int[alphabetSize][];
+
+        for (int rank = 0; rank < alphabetSize; rank++) {
+            positions[rank] = new int[counts[rank]];
+            counts[rank] = 0;
+        }
+
+        for (int i = 0; i < text.length; i++) {
+            positions[text[i]][counts[text[i]]++] = i;
+        }
+
+        return positions;
+    }
+
+    private static int maximumEnd(
+            final int[] tree,
+            final int start
+    ) {
+        int maximum = 0;
+
+        for (int i = start + 1; i > 0; i -= i & -i) {
+            maximum = Math.max(maximum, tree[i]);
+        }
+
+        return maximum;
+    }
+
+    private static void updateMaximumEnd(
+            final int[] tree,
+            final int start,
+            final int end
+    ) {
+        for (int i = start + 1; i < tree.length; i += i & -i) {
+            tree[i] = Math.max(tree[i], end);
+        }
+    }
+
+}
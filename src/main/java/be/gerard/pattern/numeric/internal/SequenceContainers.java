@@ -0,0 +1,148 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.Fit;
+import be.gerard.pattern.numeric.NumericPattern;
+import be.gerard.pattern.numeric.NumericRange;
+import be.gerard.pattern.numeric.ReachabilityIndex;
+import be.gerard.pattern.numeric.SortedNumericPattern;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Sorted pattern backed by a {@link ContainerSet}, as returned by set operations between sorted patterns and by {@link NumericPattern#ranges}.
+ * <p>
+ * Its sequence is a view of which every element is selected in O(log n), and its gaps are derived from the runs of the containers.
+ * Further set operations reuse the containers as they are.
+ */
+public final class SequenceContainers implements SortedNumericPattern<Long> {
+
+    private final ContainerSet values;
+    private final LazyReachability reachability = new LazyReachability(() -> ReachabilityIndex.of(this));
+
+    public SequenceContainers(
+            final ContainerSet values
+    ) {
+        notNull(values);
+        isTrue(!values.isEmpty());
+        isTrue(values.cardinality() <= Integer.MAX_VALUE, "a pattern has at most %d elements", Integer.MAX_VALUE);
+
+        this.values = values;
+    }
+
+    public static SortedNumericPattern<Long> of(
+            final ContainerSet values
+    ) {
+        if (values.isEmpty()) {
+            return NumericPattern.empty();
+        }
+
+        return new SequenceContainers(values);
+    }
+
+    public ContainerSet values() {
+        return values;
+    }
+
+    @Override
+    public List<Long> sequence() {
+        return values.asList();
+    }
+
+    @Override
+    public ReachabilityIndex reachability() {
+        return reachability.get();
+    }
+
+    @Override
+    public int size() {
+        return (int) values.cardinality();
+    }
+
+    @Override
+    public Long first() {
+        return values.get(0);
+    }
+
+    @Override
+    public Long last() {
+        return values.get(values.cardinality() - 1);
+    }
+
+    /**
+     * In O(r) for r runs, without visiting the elements of runs.
+     */
+    @Override
+    public List<? extends Pair<Long, Long>> findAllGaps() {
+        final List<NumericRange<Long>> ranges = values.ranges();
+
+        return IntStream.range(1, ranges.size())
+                .mapToObj(i -> ImmutablePair.of(
+                        ranges.get(i - 1).end(),
+                        ranges.get(i).start()
+                ))
+                .toList();
+    }
+
+    @Override
+    public List<List<Long>> splitDeviatingIncrements(
+            final Number increment
+    ) {
+        final long expectedIncrement = increment.longValue();
+        final long[] sequence = values.toArray();
+        final List<List<Long>> groups = new ArrayList<>();
+
+        int fromIndex = 0;
+
+        for (int i = 1; i < sequence.length; i++) {
+            if (sequence[i] - sequence[i - 1] != expectedIncrement) {
+                groups.add(LongArrayView.of(sequence, fromIndex, i));
+                fromIndex = i;
+            }
+        }
+
+        groups.add(LongArrayView.of(sequence, fromIndex, sequence.length));
+
+        return unmodifiableList(groups);
+    }
+
+    @Override
+    public Set<Fit<Long>> groupCommonIncrements(
+            final Number maxIncrement
+    ) {
+        return IncrementGrouping.groupCommonIncrements(LongArrayView.of(values.toArray()), maxIncrement.longValue());
+    }
+
+    @Override
+    public Set<Fit<Long>> groupCycles(
+            final Number patternLength
+    ) {
+        return CycleGrouping.groupCycles(LongArrayView.of(values.toArray()), patternLength.longValue());
+    }
+
+    @Override
+    public boolean equals(
+            final Object other
+    ) {
+        return PatternEquality.equals(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return PatternEquality.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "SequenceContainers[" + values + "]";
+    }
+
+}
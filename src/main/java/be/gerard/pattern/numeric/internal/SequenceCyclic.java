@@ -0,0 +1,431 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.Fit;
+import be.gerard.pattern.numeric.NumericPattern;
+import be.gerard.pattern.numeric.ReachabilityIndex;
+import be.gerard.pattern.numeric.SortedNumericPattern;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Sorted pattern of {@code elementCount} elements, starting at {@code start} and then repeating a cycle of (positive) increments.
+ * The cycle is kept as the {@code offsets} of its elements from the start of the cycle, and its total {@code cycleLength}.
+ * <p>
+ * Only the cycle is stored, so the sequence and its intervals are computed views,
+ * and gaps, splits by deviating increments and reachability are derived from the cycle, in O(cycle) memory.
+ * An unbounded pattern has {@link Long#MAX_VALUE} elements, of which its views present the first {@link Integer#MAX_VALUE}.
+ * Groupings list every element, so they are refused for patterns with more elements than that.
+ */
+public final class SequenceCyclic implements SortedNumericPattern<Long> {
+
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private final long start;
+    private final long[] offsets;
+    private final long cycleLength;
+    private final long elementCount;
+    private final LazyReachability reachability = new LazyReachability(() -> size() == 1
+            ? ReachabilityIndex.of(this)
+            : ReachabilityIndex.ofCycle(start(), increments()));
+
+    public SequenceCyclic(
+            final long start,
+            final long[] offsets,
+            final long cycleLength,
+            final long elementCount
+    ) {
+        notNull(offsets);
+        isTrue(offsets.length > 0 && offsets[0] == 0);
+        isTrue(IntStream.range(1, offsets.length).allMatch(i -> offsets[i - 1] < offsets[i]));
+        isTrue(offsets[offsets.length - 1] < cycleLength);
+        isTrue(elementCount > 0);
+        isTrue(
+                Math.min(elementCount, Integer.MAX_VALUE) <= representableCount(start, offsets, cycleLength),
+                "the elements of the pattern exceed %d",
+                Long.MAX_VALUE
+        );
+
+        this.start = start;
+        this.offsets = offsets;
+        this.cycleLength = cycleLength;
+        this.elementCount = elementCount;
+    }
+
+    /**
+     * @param repetitions The number of times the cycle is repeated after the start, or {@link #UNBOUNDED}.
+     */
+    public static SequenceCyclic of(
+            final long start,
+            final long[] cycle,
+            final long repetitions
+    ) {
+        notNull(cycle);
+        isTrue(cycle.length > 0);
+        isTrue(Arrays.stream(cycle).allMatch(increment -> increment > 0));
+        isTrue(repetitions >= 0);
+
+        final long[] primitiveCycle = primitiveCycle(cycle);
+        final long[] offsets = new long[primitiveCycle.length];
+
+        for (int i = 1; i < primitiveCycle.length; i++) {
+            offsets[i] = addCycle(offsets[i - 1], primitiveCycle[i - 1]);
+        }
+
+        final long cycleLength = addCycle(offsets[offsets.length - 1], primitiveCycle[primitiveCycle.length - 1]);
+        final long elementCount = repetitions == UNBOUNDED || repetitions > (UNBOUNDED - 1) / cycle.length
+                ? UNBOUNDED
+                : repetitions * cycle.length + 1;
+
+        // an unbounded pattern ends at the last element up to Long.MAX_VALUE, as long as its views do not reach it
+        final long representableCount = representableCount(start, offsets, cycleLength);
+
+        return new SequenceCyclic(
+                start,
+                offsets,
+                cycleLength,
+                elementCount == UNBOUNDED && representableCount < Integer.MAX_VALUE ? representableCount : elementCount
+        );
+    }
+
+    private static long addCycle(
+            final long offset,
+            final long increment
+    ) {
+        isTrue(offset <= Long.MAX_VALUE - increment, "the cycle is longer than %d", Long.MAX_VALUE);
+
+        return offset + increment;
+    }
+
+    /**
+     * The distance from the start up to {@link Long#MAX_VALUE} fits in an unsigned {@code long}, so does the number of cycles within it.
+     *
+     * @return The number of elements up to {@link Long#MAX_VALUE}, at most {@link #UNBOUNDED}.
+     */
+    private static long representableCount(
+            final long start,
+            final long[] offsets,
+            final long cycleLength
+    ) {
+        final long distance = Long.MAX_VALUE - start;
+        final long cycleCount = Long.divideUnsigned(distance, cycleLength);
+        final long remainder = Long.remainderUnsigned(distance, cycleLength);
+
+        if (Long.compareUnsigned(cycleCount, UNBOUNDED / offsets.length) >= 0) {
+            return UNBOUNDED;
+        }
+
+        final int index = Arrays.binarySearch(offsets, remainder);
+
+        return cycleCount * offsets.length + (index >= 0 ? index + 1 : -index - 1);
+    }
+
+    public long start() {
+        return start;
+    }
+
+    public long[] offsets() {
+        return offsets.clone();
+    }
+
+    public long cycleLength() {
+        return cycleLength;
+    }
+
+    public long elementCount() {
+        return elementCount;
+    }
+
+    /**
+     * @return The shortest prefix of which the cycle is a whole repetition.
+     */
+    private static long[] primitiveCycle(
+            final long[] cycle
+    ) {
+        final int period = Periods.shortestPeriod(cycle);
+
+        return cycle.length % period == 0
+                ? Arrays.copyOf(cycle, period)
+                : Arrays.copyOf(cycle, cycle.length);
+    }
+
+    private long incrementAt(
+            final int cyclePosition
+    ) {
+        final long nextOffset = cyclePosition + 1 < offsets.length ? offsets[cyclePosition + 1] : cycleLength;
+
+        return nextOffset - offsets[cyclePosition];
+    }
+
+    private long valueAt(
+            final int index
+    ) {
+        return start + (long) (index / offsets.length) * cycleLength + offsets[index % offsets.length];
+    }
+
+    @Override
+    public List<Long> sequence() {
+        return new Values();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(elementCount, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Long first() {
+        return start;
+    }
+
+    @Override
+    public Long last() {
+        return valueAt(size() - 1);
+    }
+
+    @Override
+    public List<Long> intervals() {
+        return new Intervals();
+    }
+
+    @Override
+    public NumericPattern<Long> shortestRepeatingCycle() {
+        if (size() <= 1) {
+            return NumericPattern.empty();
+        }
+
+        final long[] increments = increments();
+
+        return SequenceUnsortedLong.trusted(increments, increments.length);
+    }
+
+    /**
+     * A pattern with at least 2 cycles has its (primitive) cycle as shortest period, otherwise its increments are too short to tell.
+     */
+    private long[] increments() {
+        final int incrementCount = size() - 1;
+
+        final long[] increments = new long[Math.min(incrementCount, 2 * offsets.length)];
+
+        for (int i = 0; i < increments.length; i++) {
+            increments[i] = incrementAt(i % offsets.length);
+        }
+
+        if (incrementCount >= 2 * offsets.length) {
+            return Arrays.copyOf(increments, offsets.length);
+        }
+
+        return Arrays.copyOf(increments, Periods.shortestPeriod(increments));
+    }
+
+    @Override
+    public ReachabilityIndex reachability() {
+        return reachability.get();
+    }
+
+    @Override
+    public List<? extends Pair<Long, Long>> findAllGaps() {
+        return streamAllGaps().toList();
+    }
+
+    @Override
+    public Stream<? extends Pair<Long, Long>> streamAllGaps() {
+        final List<Long> values = sequence();
+
+        return incrementIndices(position -> incrementAt(position) > 1)
+                .mapToObj(i -> ImmutablePair.of(
+                        values.get(i),
+                        values.get(i + 1)
+                ));
+    }
+
+    @Override
+    public List<List<Long>> splitDeviatingIncrements(
+            final Number increment
+    ) {
+        return streamSplitDeviatingIncrements(increment).toList();
+    }
+
+    /**
+     * Every group is a view of the sequence.
+     */
+    @Override
+    public Stream<List<Long>> streamSplitDeviatingIncrements(
+            final Number increment
+    ) {
+        final long expectedIncrement = increment.longValue();
+        final List<Long> values = sequence();
+        final PrimitiveIterator.OfInt borders = IntStream.concat(
+                        incrementIndices(position -> incrementAt(position) != expectedIncrement).map(i -> i + 1),
+                        IntStream.of(size())
+                )
+                .iterator();
+
+        final Spliterator<List<Long>> groups = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            private int fromIndex = 0;
+
+            @Override
+            public boolean tryAdvance(
+                    final Consumer<? super List<Long>> action
+            ) {
+                if (!borders.hasNext()) {
+                    return false;
+                }
+
+                final int toIndex = borders.nextInt();
+                action.accept(values.subList(fromIndex, toIndex));
+                fromIndex = toIndex;
+
+                return true;
+            }
+
+        };
+
+        return StreamSupport.stream(groups, false);
+    }
+
+    /**
+     * @return The indices of all increments of which the position in the cycle matches, in ascending order, without visiting the other increments.
+     */
+    private IntStream incrementIndices(
+            final IntPredicate cyclePosition
+    ) {
+        final int[] positions = IntStream.range(0, offsets.length)
+                .filter(cyclePosition)
+                .toArray();
+
+        if (positions.length == 0) {
+            return IntStream.empty();
+        }
+
+        final long incrementCount = size() - 1;
+
+        return LongStream.iterate(0, repetitionStart -> repetitionStart < incrementCount, repetitionStart -> repetitionStart + offsets.length)
+                .flatMap(repetitionStart -> Arrays.stream(positions).mapToLong(position -> repetitionStart + position))
+                .takeWhile(i -> i < incrementCount)
+                .mapToInt(Math::toIntExact);
+    }
+
+    /**
+     * Lists every element, so it is as large as the sequence.
+     *
+     * @throws IllegalArgumentException when the pattern has more elements than its views present, e.g. when it is unbounded.
+     */
+    @Override
+    public Set<Fit<Long>> groupCommonIncrements(
+            final Number maxIncrement
+    ) {
+        requireAllPresented("group the common increments");
+
+        return IncrementGrouping.groupCommonIncrements(sequence(), maxIncrement.longValue());
+    }
+
+    /**
+     * Lists every element, so it is as large as the sequence.
+     *
+     * @throws IllegalArgumentException when the pattern has more elements than its views present, e.g. when it is unbounded.
+     */
+    @Override
+    public Set<Fit<Long>> groupCycles(
+            final Number patternLength
+    ) {
+        requireAllPresented("group the cycles");
+
+        return CycleGrouping.groupCycles(sequence(), patternLength.longValue());
+    }
+
+    private void requireAllPresented(
+            final String analysis
+    ) {
+        isTrue(
+                elementCount <= Integer.MAX_VALUE,
+                "can not %s of a pattern with more than %d elements, they would all be listed",
+                analysis,
+                Integer.MAX_VALUE
+        );
+    }
+
+    @Override
+    public boolean equals(
+            final Object other
+    ) {
+        if (other instanceof SequenceCyclic sequence
+                && start == sequence.start
+                && cycleLength == sequence.cycleLength
+                && elementCount == sequence.elementCount
+                && Arrays.equals(offsets, sequence.offsets)) {
+            return true;
+        }
+
+        return PatternEquality.equals(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return PatternEquality.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "SequenceCyclic[start=" + start + ", offsets=" + Arrays.toString(offsets) + ", cycleLength=" + cycleLength + ", elementCount=" + elementCount + "]";
+    }
+
+    private final class Values extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(
+                final int index
+        ) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return valueAt(index);
+        }
+
+        @Override
+        public int size() {
+            return SequenceCyclic.this.size();
+        }
+
+    }
+
+    private final class Intervals extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(
+                final int index
+        ) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return incrementAt(index % offsets.length);
+        }
+
+        @Override
+        public int size() {
+            return SequenceCyclic.this.size() - 1;
+        }
+
+    }
+
+}
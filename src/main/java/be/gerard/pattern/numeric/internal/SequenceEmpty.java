@@ -13,20 +13,25 @@ import static java.util.Collections.emptySet;
 public record SequenceEmpty<T extends Number>() implements SortedNumericPattern<T> {
 
     @Override
-    public List<T> sequence() {
-        return emptyList();
+    public boolean equals(
+            final Object other
+    ) {
+        return PatternEquality.equals(this, other);
     }
 
     @Override
-    public List<? extends Pair<T, T>> findAllGaps() {
+    public int hashCode() {
+        return PatternEquality.hashCode(this);
+    }
+
+    @Override
+    public List<T> sequence() {
         return emptyList();
     }
 
     @Override
-    public boolean canReach(
-            final T number
-    ) {
-        return false;
+    public List<? extends Pair<T, T>> findAllGaps() {
+        return emptyList();
     }
 
     @Override
@@ -0,0 +1,187 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.Fit;
+import be.gerard.pattern.numeric.ReachabilityIndex;
+import be.gerard.pattern.numeric.SortedNumericPattern;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Sorted pattern backed by a memory-mapped file of strictly increasing, little-endian {@code long}s.
+ * <p>
+ * The sequence, its intervals, its gaps and its split by deviating increments are views or lazy streams over the mapping, without copying it.
+ * Analyses which need random access to derived data (e.g. grouping, reachability) still copy the values into a {@code long[]}.
+ */
+public final class SequenceMapped implements SortedNumericPattern<Long> {
+
+    private final MappedLongs values;
+    private final LazyReachability reachability = new LazyReachability(() -> ReachabilityIndex.of(this));
+
+    public SequenceMapped(
+            final MappedLongs values
+    ) {
+        notNull(values);
+        isTrue(!values.isEmpty());
+
+        this.values = values;
+    }
+
+    /**
+     * Reads the whole file once, to validate that it is strictly increasing.
+     */
+    public static SequenceMapped of(
+            final Path path
+    ) throws IOException {
+        final MappedLongs values = MappedLongs.of(path);
+
+        for (int i = 1; i < values.size(); i++) {
+            isTrue(values.getLong(i - 1) < values.getLong(i), "%s is not strictly increasing at index %d", path, i);
+        }
+
+        return new SequenceMapped(values);
+    }
+
+    public MappedLongs values() {
+        return values;
+    }
+
+    @Override
+    public List<Long> sequence() {
+        return values;
+    }
+
+    @Override
+    public ReachabilityIndex reachability() {
+        return reachability.get();
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public Long first() {
+        return values.getLong(0);
+    }
+
+    @Override
+    public Long last() {
+        return values.getLong(values.size() - 1);
+    }
+
+    @Override
+    public List<Long> intervals() {
+        return values.deltas();
+    }
+
+    @Override
+    public List<? extends Pair<Long, Long>> findAllGaps() {
+        return streamAllGaps().toList();
+    }
+
+    @Override
+    public Stream<? extends Pair<Long, Long>> streamAllGaps() {
+        return IntStream.range(1, values.size())
+                .filter(i -> values.getLong(i) - values.getLong(i - 1) > 1)
+                .mapToObj(i -> ImmutablePair.of(
+                        values.getLong(i - 1),
+                        values.getLong(i)
+                ));
+    }
+
+    @Override
+    public List<List<Long>> splitDeviatingIncrements(
+            final Number increment
+    ) {
+        return streamSplitDeviatingIncrements(increment).toList();
+    }
+
+    /**
+     * Every group is a view of the mapping.
+     */
+    @Override
+    public Stream<List<Long>> streamSplitDeviatingIncrements(
+            final Number increment
+    ) {
+        final long expectedIncrement = increment.longValue();
+
+        final Iterator<List<Long>> groups = new Iterator<>() {
+
+            private int fromIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return fromIndex < values.size();
+            }
+
+            @Override
+            public List<Long> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                int toIndex = fromIndex + 1;
+
+                while (toIndex < values.size() && values.getLong(toIndex) - values.getLong(toIndex - 1) == expectedIncrement) {
+                    toIndex++;
+                }
+
+                final List<Long> group = values.subList(fromIndex, toIndex);
+                fromIndex = toIndex;
+
+                return group;
+            }
+
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(groups, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Set<Fit<Long>> groupCommonIncrements(
+            final Number maxIncrement
+    ) {
+        return IncrementGrouping.groupCommonIncrements(values, maxIncrement.longValue());
+    }
+
+    @Override
+    public Set<Fit<Long>> groupCycles(
+            final Number patternLength
+    ) {
+        return CycleGrouping.groupCycles(values, patternLength.longValue());
+    }
+
+    @Override
+    public boolean equals(
+            final Object other
+    ) {
+        return PatternEquality.equals(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return PatternEquality.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "SequenceMapped[size=" + values.size() + "]";
+    }
+
+}
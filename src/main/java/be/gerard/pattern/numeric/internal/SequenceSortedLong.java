@@ -0,0 +1,215 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.Fit;
+import be.gerard.pattern.numeric.NumericPattern;
+import be.gerard.pattern.numeric.ReachabilityIndex;
+import be.gerard.pattern.numeric.SortedNumericPattern;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Sorted pattern backed by the first {@code size} elements of a strictly increasing {@code long[]}.
+ * <p>
+ * The array is never exposed: it is either a copy, or shared with the {@link PatternAppender} which only writes beyond the size of its snapshots.
+ */
+public final class SequenceSortedLong implements SortedNumericPattern<Long> {
+
+    private final long[] values;
+    private final int size;
+    private final LazyReachability reachability = new LazyReachability(() -> ReachabilityIndex.of(this));
+
+    private SequenceSortedLong(
+            final long[] values,
+            final int size
+    ) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * @param values strictly increasing over {@code [0, size)}, and never written within that range again
+     */
+    static SequenceSortedLong trusted(
+            final long[] values,
+            final int size
+    ) {
+        return new SequenceSortedLong(values, size);
+    }
+
+    public static SequenceSortedLong of(
+            final long[] sequence
+    ) {
+        final long[] sortedSequence = Longs.sortedDistinct(sequence);
+
+        return new SequenceSortedLong(sortedSequence, sortedSequence.length);
+    }
+
+    /**
+     * Copies the first {@code size} values, after validating that they are strictly increasing, in O(n).
+     */
+    public static SequenceSortedLong ofSorted(
+            final long[] values,
+            final int size
+    ) {
+        notNull(values);
+        isTrue(0 < size && size <= values.length);
+
+        for (int i = 1; i < size; i++) {
+            isTrue(values[i - 1] < values[i], "the values are not strictly increasing at index %d", i);
+        }
+
+        return new SequenceSortedLong(Arrays.copyOf(values, size), size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ReachabilityIndex reachability() {
+        return reachability.get();
+    }
+
+    @Override
+    public List<Long> sequence() {
+        return LongArrayView.of(values, 0, size);
+    }
+
+    @Override
+    public Long first() {
+        return values[0];
+    }
+
+    @Override
+    public Long last() {
+        return values[size - 1];
+    }
+
+    @Override
+    public List<Long> intervals() {
+        return LongArrayView.of(Longs.deltas(values, size));
+    }
+
+    @Override
+    public NumericPattern<Long> deltas() {
+        if (size <= 1) {
+            return NumericPattern.empty();
+        }
+
+        final long[] deltas = Longs.deltas(values, size);
+
+        return SequenceUnsortedLong.trusted(deltas, deltas.length);
+    }
+
+    @Override
+    public NumericPattern<Long> shortestRepeatingCycle() {
+        if (size <= 1) {
+            return NumericPattern.empty();
+        }
+
+        final long[] deltas = Longs.deltas(values, size);
+
+        return SequenceUnsortedLong.trusted(deltas, Periods.shortestPeriod(deltas));
+    }
+
+    @Override
+    public List<? extends Pair<Long, Long>> findAllGaps() {
+        if (size <= 1) {
+            return emptyList();
+        }
+
+        final List<Pair<Long, Long>> gaps = new ArrayList<>();
+
+        for (int i = 1; i < size; i++) {
+            if (values[i] - values[i - 1] > 1) {
+                gaps.add(ImmutablePair.of(values[i - 1], values[i]));
+            }
+        }
+
+        return unmodifiableList(gaps);
+    }
+
+    @Override
+    public LongStream streamDistinctCombinatorialIncrements(
+            final Number maxLength
+    ) {
+        return DifferenceSets.stream(values, size, maxLength.longValue());
+    }
+
+    @Override
+    public BitSet combinatorialIncrementBitmap(
+            final Number maxLength
+    ) {
+        return DifferenceSets.bitmap(values, size, maxLength.longValue());
+    }
+
+    @Override
+    public List<List<Long>> splitDeviatingIncrements(
+            final Number increment
+    ) {
+        final long expectedIncrement = increment.longValue();
+        final List<List<Long>> groups = new ArrayList<>();
+
+        int fromIndex = 0;
+
+        for (int i = 1; i < size; i++) {
+            if (values[i] - values[i - 1] != expectedIncrement) {
+                groups.add(LongArrayView.of(values, fromIndex, i));
+                fromIndex = i;
+            }
+        }
+
+        groups.add(LongArrayView.of(values, fromIndex, size));
+
+        return unmodifiableList(groups);
+    }
+
+    @Override
+    public Set<Fit<Long>> groupCommonIncrements(
+            final Number maxIncrement
+    ) {
+        return IncrementGrouping.groupCommonIncrements(sequence(), maxIncrement.longValue());
+    }
+
+    @Override
+    public Set<Fit<Long>> groupCycles(
+            final Number patternLength
+    ) {
+        return CycleGrouping.groupCycles(sequence(), patternLength.longValue());
+    }
+
+    @Override
+    public boolean equals(
+            final Object other
+    ) {
+        if (other instanceof SequenceSortedLong sequence) {
+            return Arrays.equals(values, 0, size, sequence.values, 0, sequence.size);
+        }
+
+        return PatternEquality.equals(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return PatternEquality.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "SequenceSortedLong[sequence=" + sequence() + "]";
+    }
+
+}
@@ -11,12 +11,24 @@ public record SequenceUnsorted<T extends Number>(
         List<T> sequence
 ) implements UnsortedNumericPattern<T> {
 
-    public static <T extends Number> SequenceSorted<T> of(
+    public static <T extends Number> SequenceUnsorted<T> of(
             final Collection<T> sequence
     ) {
         notEmpty(sequence);
 
-        return new SequenceSorted<>(List.copyOf(sequence));
+        return new SequenceUnsorted<>(List.copyOf(sequence));
+    }
+
+    @Override
+    public boolean equals(
+            final Object other
+    ) {
+        return PatternEquality.equals(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return PatternEquality.hashCode(this);
     }
 
 }
@@ -0,0 +1,139 @@
+package be.gerard.pattern.numeric.internal;
+
+import be.gerard.pattern.numeric.NumericPattern;
+import be.gerard.pattern.numeric.UnsortedNumericPattern;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Unsorted pattern backed by the first {@code size} elements of a {@code long[]}.
+ * <p>
+ * The array is never exposed: it is either a copy, or shared with the {@link PatternAppender} which only writes beyond the size of its snapshots.
+ */
+public final class SequenceUnsortedLong implements UnsortedNumericPattern<Long> {
+
+    private final long[] values;
+    private final int size;
+
+    private SequenceUnsortedLong(
+            final long[] values,
+            final int size
+    ) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * @param values never written within {@code [0, size)} again
+     */
+    static SequenceUnsortedLong trusted(
+            final long[] values,
+            final int size
+    ) {
+        return new SequenceUnsortedLong(values, size);
+    }
+
+    public static SequenceUnsortedLong of(
+            final long[] sequence
+    ) {
+        notNull(sequence);
+        isTrue(sequence.length > 0);
+
+        return new SequenceUnsortedLong(Arrays.copyOf(sequence, sequence.length), sequence.length);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Long> sequence() {
+        return LongArrayView.of(values, 0, size);
+    }
+
+    @Override
+    public Long first() {
+        return values[0];
+    }
+
+    @Override
+    public Long last() {
+        return values[size - 1];
+    }
+
+    @Override
+    public List<Long> intervals() {
+        return LongArrayView.of(Longs.deltas(values, size));
+    }
+
+    @Override
+    public NumericPattern<Long> deltas() {
+        if (size <= 1) {
+            return NumericPattern.empty();
+        }
+
+        final long[] deltas = Longs.deltas(values, size);
+
+        return SequenceUnsortedLong.trusted(deltas, deltas.length);
+    }
+
+    @Override
+    public NumericPattern<Long> shortestRepeatingCycle() {
+        if (size <= 1) {
+            return NumericPattern.empty();
+        }
+
+        final long[] deltas = Longs.deltas(values, size);
+
+        return SequenceUnsortedLong.trusted(deltas, Periods.shortestPeriod(deltas));
+    }
+
+    @Override
+    public List<? extends Pair<Long, Long>> findAllGaps() {
+        if (size <= 1) {
+            return emptyList();
+        }
+
+        final List<Pair<Long, Long>> gaps = new ArrayList<>();
+
+        for (int i = 1; i < size; i++) {
+            if (Math.abs(values[i] - values[i - 1]) != 1) {
+                gaps.add(ImmutablePair.of(values[i - 1], values[i]));
+            }
+        }
+
+        return unmodifiableList(gaps);
+    }
+
+    @Override
+    public boolean equals(
+            final Object other
+    ) {
+        if (other instanceof SequenceUnsortedLong sequence) {
+            return Arrays.equals(values, 0, size, sequence.values, 0, sequence.size);
+        }
+
+        return PatternEquality.equals(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return PatternEquality.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "SequenceUnsortedLong[sequence=" + sequence() + "]";
+    }
+
+}
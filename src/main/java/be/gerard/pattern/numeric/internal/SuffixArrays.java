@@ -0,0 +1,234 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+
+/**
+ * Suffix array construction over integer texts.
+ * <p>
+ * Texts are dense ranks in {@code [0, alphabetSize)}, so that arbitrary {@code long} values (and unique separators) can be indexed.
+ */
+public final class SuffixArrays {
+
+    private SuffixArrays() {
+        // no-op
+    }
+
+    /**
+     * @return The rank of every value within {@code alphabet}, which has to be sorted and contain every value.
+     */
+    public static int[] ranks(
+            final long[] values,
+            final long[] alphabet
+    ) {
+        final int[] ranks = new int[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            ranks[i] = Arrays.binarySearch(alphabet, values[i]);
+        }
+
+        return ranks;
+    }
+
+    /**
+     * Prefix doubling with radix sorting, O(n log n).
+     *
+     * @return The starting positions of all suffixes of {@code text}, in lexicographical order.
+     */
+    public static int[] suffixArray(
+            final int[] text,
+            final int alphabetSize
+    ) {
+        final int n = text.length;
+        int[] suffixArray = new int[n];
+        int[] rank = new int[n];
+        int[] nextRank = new int[n];
+        final int[] buffer = new int[n];
+        int[] counts = new int[Math.max(alphabetSize, n) + 1];
+
+        for (final int character : text) {
+            counts[character + 1]++;
+        }
+
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+
+        for (int i = 0; i < n; i++) {
+            suffixArray[counts[text[i]]++] = i;
+        }
+
+        int classes = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && text[suffixArray[i]] != text[suffixArray[i - 1]]) {
+                classes++;
+            }
+
+            rank[suffixArray[i]] = classes;
+        }
+
+        classes++;
+
+        for (int k = 1; classes < n; k <<= 1) {
+            // order by the second half first: suffixes without a second half come first
+            int position = 0;
+
+            for (int i = n - k; i < n; i++) {
+                buffer[position++] = i;
+            }
+
+            for (int i = 0; i < n; i++) {
+                if (suffixArray[i] >= k) {
+                    buffer[position++] = suffixArray[i] - k;
+                }
+            }
+
+            // then stable by the first half
+            counts = new int[classes + 1];
+
+            for (int i = 0; i < n; i++) {
+                counts[rank[i] + 1]++;
+            }
+
+            for (int i = 1; i <= classes; i++) {
+                counts[i] += counts[i - 1];
+            }
+
+            for (int i = 0; i < n; i++) {
+                suffixArray[counts[rank[buffer[i]]]++] = buffer[i];
+            }
+
+            classes = 0;
+            nextRank[suffixArray[0]] = 0;
+
+            for (int i = 1; i < n; i++) {
+                final int previous = suffixArray[i - 1];
+                final int current = suffixArray[i];
+
+                if (rank[previous] != rank[current] || secondRank(rank, previous, k) != secondRank(rank, current, k)) {
+                    classes++;
+                }
+
+                nextRank[current] = classes;
+            }
+
+            classes++;
+
+            final int[] swap = rank;
+            rank = nextRank;
+            nextRank = swap;
+        }
+
+        return suffixArray;
+    }
+
+    private static int secondRank(
+            final int[] rank,
+            final int position,
+            final int k
+    ) {
+        return position + k < rank.length ? rank[position + k] : -1;
+    }
+
+    /**
+     * @return The inverse permutation of {@code suffixArray}, i.e. the lexicographical rank of every suffix.
+     */
+    public static int[] inverse(
+            final int[] suffixArray
+    ) {
+        final int[] inverse = new int[suffixArray.length];
+
+        for (int i = 0; i < suffixArray.length; i++) {
+            inverse[suffixArray[i]] = i;
+        }
+
+        return inverse;
+    }
+
+    /**
+     * Kasai's algorithm, O(n).
+     *
+     * @return For every position {@code i > 0} in the suffix array, the length of the longest common prefix with position {@code i - 1}.
+     */
+    public static int[] longestCommonPrefixes(
+            final int[] text,
+            final int[] suffixArray
+    ) {
+        final int n = text.length;
+        final int[] inverse = inverse(suffixArray);
+        final int[] longestCommonPrefixes = new int[n];
+
+        int length = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (inverse[i] == 0) {
+                length = 0;
+                continue;
+            }
+
+            final int j = suffixArray[inverse[i] - 1];
+
+            while (i + length < n && j + length < n && text[i + length] == text[j + length]) {
+                length++;
+            }
+
+            longestCommonPrefixes[inverse[i]] = length;
+
+            if (length > 0) {
+                length--;
+            }
+        }
+
+        return longestCommonPrefixes;
+    }
+
+    /**
+     * @return The first position in the suffix array whose suffix is not smaller than {@code pattern} (or, when {@code upper}, does not start with it).
+     */
+    public static int bound(
+            final int[] text,
+            final int[] suffixArray,
+            final int[] pattern,
+            final boolean upper
+    ) {
+        int low = 0;
+        int high = suffixArray.length;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = compareWithPrefix(text, suffixArray[middle], pattern);
+
+            if (comparison < 0 || upper && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return A negative number, zero or a positive number when the suffix at {@code position} is smaller than, starts with or is greater than {@code pattern}.
+     */
+    private static int compareWithPrefix(
+            final int[] text,
+            final int position,
+            final int[] pattern
+    ) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (position + i == text.length) {
+                return -1;
+            }
+
+            final int comparison = Integer.compare(text[position + i], pattern[i]);
+
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return 0;
+    }
+
+}
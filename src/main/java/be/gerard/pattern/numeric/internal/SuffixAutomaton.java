@@ -0,0 +1,242 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.util.Arrays;
+
+/**
+ * Smallest automaton accepting all substrings of a text, built online in O(n) (Blumer et al.).
+ * Transitions are stored per state as a linked list of edges, which are indexed by (state, symbol).
+ */
+public final class SuffixAutomaton {
+
+    private static final int ROOT = 0;
+
+    private int[] lengths;
+    private int[] links;
+    private int[] firstEdges;
+    private int stateCount = 0;
+
+    private int[] edgeSymbols;
+    private int[] edgeTargets;
+    private int[] nextEdges;
+    private int edgeCount = 0;
+
+    private final LongIntMap edges;
+    private final int[] prefixStates;
+    private int last;
+
+    public SuffixAutomaton(
+            final int[] text
+    ) {
+        final int maximumStates = Math.max(2, 2 * text.length);
+        final int maximumEdges = Math.max(4, 3 * text.length);
+
+        this.lengths = new int[maximumStates];
+        this.links = new int[maximumStates];
+        this.firstEdges = new int[maximumStates];
+        this.edgeSymbols = new int[maximumEdges];
+        this.edgeTargets = new int[maximumEdges];
+        this.nextEdges = new int[maximumEdges];
+        this.edges = new LongIntMap(maximumEdges);
+        this.prefixStates = new int[text.length];
+
+        this.last = newState(0, -1);
+
+        for (int i = 0; i < text.length; i++) {
+            extend(text[i]);
+            prefixStates[i] = last;
+        }
+    }
+
+    private int newState(
+            final int length,
+            final int link
+    ) {
+        if (stateCount == lengths.length) {
+            lengths = Arrays.copyOf(lengths, stateCount * 2);
+            links = Arrays.copyOf(links, stateCount * 2);
+            firstEdges = Arrays.copyOf(firstEdges, stateCount * 2);
+        }
+
+        lengths[stateCount] = length;
+        links[stateCount] = link;
+        firstEdges[stateCount] = -1;
+
+        return stateCount++;
+    }
+
+    private static long key(
+            final int state,
+            final int symbol
+    ) {
+        return (long) state << 32 | (symbol & 0xFFFFFFFFL);
+    }
+
+    private void addEdge(
+            final int state,
+            final int symbol,
+            final int target
+    ) {
+        if (edgeCount == edgeTargets.length) {
+            edgeSymbols = Arrays.copyOf(edgeSymbols, edgeCount * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+            nextEdges = Arrays.copyOf(nextEdges, edgeCount * 2);
+        }
+
+        edgeSymbols[edgeCount] = symbol;
+        edgeTargets[edgeCount] = target;
+        nextEdges[edgeCount] = firstEdges[state];
+        firstEdges[state] = edgeCount;
+        edges.put(key(state, symbol), edgeCount);
+        edgeCount++;
+    }
+
+    /**
+     * @return The target of the transition, or -1 when there is none.
+     */
+    public int transition(
+            final int state,
+            final int symbol
+    ) {
+        final int edge = edges.get(key(state, symbol));
+
+        return edge == LongIntMap.MISSING ? -1 : edgeTargets[edge];
+    }
+
+    private void extend(
+            final int symbol
+    ) {
+        final int current = newState(lengths[last] + 1, ROOT);
+        int state = last;
+
+        while (state != -1 && transition(state, symbol) == -1) {
+            addEdge(state, symbol, current);
+            state = links[state];
+        }
+
+        if (state != -1) {
+            final int target = transition(state, symbol);
+
+            if (lengths[state] + 1 == lengths[target]) {
+                links[current] = target;
+            } else {
+                final int clone = newState(lengths[state] + 1, links[target]);
+
+                for (int edge = firstEdges[target]; edge != -1; edge = nextEdges[edge]) {
+                    addEdge(clone, edgeSymbols[edge], edgeTargets[edge]);
+                }
+
+                while (state != -1 && transition(state, symbol) == target) {
+                    edgeTargets[edges.get(key(state, symbol))] = clone;
+                    state = links[state];
+                }
+
+                links[target] = clone;
+                links[current] = clone;
+            }
+        }
+
+        last = current;
+    }
+
+    public int stateCount() {
+        return stateCount;
+    }
+
+    /**
+     * @return The length of the longest substring that leads to {@code state}.
+     */
+    public int length(
+            final int state
+    ) {
+        return lengths[state];
+    }
+
+    /**
+     * @return The suffix link of {@code state}, or -1 for the root.
+     */
+    public int link(
+            final int state
+    ) {
+        return links[state];
+    }
+
+    /**
+     * @return The state of the prefix of the automaton's text which ends at {@code position}.
+     */
+    public int prefixState(
+            final int position
+    ) {
+        return prefixStates[position];
+    }
+
+    /**
+     * @return The state which {@code pattern} leads to, or -1 when it is not a substring.
+     */
+    public int find(
+            final int[] pattern
+    ) {
+        int state = ROOT;
+
+        for (int i = 0; i < pattern.length && state != -1; i++) {
+            state = transition(state, pattern[i]);
+        }
+
+        return state;
+    }
+
+    /**
+     * @return All states, from the longest to the shortest, by counting sort.
+     */
+    public int[] statesByDecreasingLength() {
+        final int maximumLength = lengths[last];
+        final int[] counts = new int[maximumLength + 2];
+
+        for (int state = 0; state < stateCount; state++) {
+            counts[maximumLength - lengths[state] + 1]++;
+        }
+
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+
+        final int[] states = new int[stateCount];
+
+        for (int state = 0; state < stateCount; state++) {
+            states[counts[maximumLength - lengths[state]]++] = state;
+        }
+
+        return states;
+    }
+
+    /**
+     * @return For every position in {@code text}, the length of the longest substring ending there, which is also a substring of the automaton's text.
+     */
+    public int[] matchingStatistics(
+            final int[] text
+    ) {
+        final int[] matchingStatistics = new int[text.length];
+        int state = ROOT;
+        int length = 0;
+
+        for (int i = 0; i < text.length; i++) {
+            while (state != ROOT && transition(state, text[i]) == -1) {
+                state = links[state];
+                length = lengths[state];
+            }
+
+            final int target = transition(state, text[i]);
+
+            if (target == -1) {
+                length = 0;
+            } else {
+                state = target;
+                length++;
+            }
+
+            matchingStatistics[i] = length;
+        }
+
+        return matchingStatistics;
+    }
+
+}
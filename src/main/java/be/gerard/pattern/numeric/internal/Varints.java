@@ -0,0 +1,71 @@
+package be.gerard.pattern.numeric.internal;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+/**
+ * Variable length encoding of {@code long}s, 7 bits per byte with the highest bit set on all but the last byte (LEB128).
+ * <p>
+ * Signed values are zigzag encoded first ({@code 0, -1, 1, -2, ...} become {@code 0, 1, 2, 3, ...}),
+ * so that small negative values are as short as small positive values.
+ */
+public final class Varints {
+
+    public static final int MAXIMUM_LENGTH = 10;
+
+    private Varints() {
+        // no-op
+    }
+
+    public static void writeUnsigned(
+            final ByteBuffer buffer,
+            final long value
+    ) {
+        long remaining = value;
+
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+
+        buffer.put((byte) remaining);
+    }
+
+    public static void writeSigned(
+            final ByteBuffer buffer,
+            final long value
+    ) {
+        writeUnsigned(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * @throws java.nio.BufferUnderflowException when the buffer ends within the value.
+     */
+    public static long readUnsigned(
+            final ByteBuffer buffer
+    ) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            isTrue(shift < 7 * MAXIMUM_LENGTH, "varint is longer than %d bytes", MAXIMUM_LENGTH);
+
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    public static long readSigned(
+            final ByteBuffer buffer
+    ) {
+        final long value = readUnsigned(buffer);
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
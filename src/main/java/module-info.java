@@ -1,5 +1,8 @@
 module be.gerard.pattern.numeric {
     exports be.gerard.pattern.numeric;
 
+    requires jdk.jfr;
     requires org.apache.commons.lang3;
+
+    uses be.gerard.pattern.numeric.PatternMetrics;
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package be.gerard.pattern.numeric
+
+
+import spock.lang.Specification
+import spock.lang.Title
+
+@Title("Fit")
+class FitSpecification extends Specification {
+
+    def cleanup() {
+        Fit.setValidationLevel(ValidationLevel.FULL)
+    }
+
+    def "a sequential fit requires a rotation of the subsequence in the sequence"() {
+
+        when:
+        Fit.sequential(sequence, subsequence)
+
+        then:
+        noExceptionThrown()
+
+        where:
+        sequence        | subsequence | comment
+        [1]             | [1]         | ""
+        [1, 2, 3, 1, 2] | [1, 2, 3]   | ""
+        [1, 2, 3, 1, 2] | [2, 3, 1]   | ""
+        [1, 2, 3, 1, 2] | [3, 1, 2]   | ""
+
+    }
+
+    def "a sequential fit is rejected when no rotation of the subsequence occurs"() {
+
+        when:
+        Fit.sequential(sequence, subsequence)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        sequence        | subsequence  | comment
+        [1, 2, 3, 1, 2] | [1, 3, 2]    | ""
+        [1, 2]          | [1, 2, 1]    | "longer than the sequence"
+        [1, 2, 3]       | [1L, 2L, 3L] | "elements are compared by equals"
+
+    }
+
+    def "validation can be turned off"() {
+
+        given:
+        Fit.setValidationLevel(ValidationLevel.OFF)
+
+        when:
+        Fit.Sequential<Integer> fit = Fit.sequential([1, 2], [3])
+
+        then:
+        fit.subsequence() == [3]
+        Fit.validationLevel() == ValidationLevel.OFF
+
+    }
+
+    def "sampled validation only validates some fits"() {
+
+        given:
+        Fit.setValidationLevel(ValidationLevel.SAMPLED)
+
+        when:
+        int rejected = (0..<640).count {
+            try {
+                Fit.sequential([1, 2], [3])
+                false
+            } catch (IllegalArgumentException ignored) {
+                true
+            }
+        }
+
+        then:
+        rejected == 10
+
+    }
+
+    def "the validation level property is parsed leniently"() {
+
+        expect:
+        Validation.parse(value) == expectedLevel
+
+        where:
+        value      | expectedLevel           | comment
+        null       | ValidationLevel.FULL    | "not set"
+        "sampled"  | ValidationLevel.SAMPLED | ""
+        " OFF "    | ValidationLevel.OFF     | ""
+        "sampeld"  | ValidationLevel.FULL    | "mistyped"
+        ""         | ValidationLevel.FULL    | ""
+
+    }
+
+    def "trusted fits are not validated"() {
+
+        when:
+        Fit.Sequential<Integer> fit = Fit.Sequential.trusted([1, 2], [3])
+
+        then:
+        fit.subsequence() == [3]
+
+        when:
+        Fit.sequential([1, 2], [3])
+
+        then:
+        thrown(IllegalArgumentException)
+
+    }
+
+}
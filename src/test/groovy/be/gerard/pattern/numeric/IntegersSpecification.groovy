@@ -27,4 +27,94 @@ class IntegersSpecification extends Specification {
 
     }
 
-}
\ No newline at end of file
+    def "calculate the least common multiple of longs"() {
+
+        expect:
+        Integers.leastCommonMultiple(numbers as long[]) == expectedLeastCommonMultiple
+        Integers.leastCommonMultipleExact(numbers as long[]) == BigInteger.valueOf(expectedLeastCommonMultiple)
+
+        where:
+        numbers                    | expectedLeastCommonMultiple | comment
+        [1]                        | 1                           | ""
+        [4, 6]                     | 12                          | ""
+        [4, 3, 2]                  | 12                          | ""
+        [1_000_000_007, 998244353] | 998_244_359_987_710_471     | "no intermediate multiples are walked"
+
+    }
+
+    def "the least common multiple overflows to a big integer"() {
+
+        given:
+        long[] numbers = [Long.MAX_VALUE, Long.MAX_VALUE - 1]
+
+        when:
+        Integers.leastCommonMultiple(numbers)
+
+        then:
+        thrown(ArithmeticException)
+
+        expect:
+        Integers.leastCommonMultipleExact(numbers) == BigInteger.valueOf(Long.MAX_VALUE) * BigInteger.valueOf(Long.MAX_VALUE - 1)
+
+    }
+
+    def "the least common multiple of ints does not overflow silently"() {
+
+        when:
+        Integers.leastCommonMultiple([65_536, 65_537])
+
+        then:
+        thrown(ArithmeticException)
+
+    }
+
+    def "calculate the greatest common divisor"() {
+
+        expect:
+        Integers.greatestCommonDivisor(numbers as long[]) == expectedGreatestCommonDivisor
+
+        where:
+        numbers                          | expectedGreatestCommonDivisor | comment
+        [0]                              | 0                             | ""
+        [12, 18]                         | 6                             | ""
+        [-12, 18]                        | 6                             | "absolute values"
+        [12, 18, 8]                      | 2                             | ""
+        [7, 0]                           | 7                             | ""
+        [Long.MIN_VALUE, 6]              | 2                             | "no absolute value"
+        [Long.MIN_VALUE, 1L << 62]       | 1L << 62                      | ""
+        [Long.MIN_VALUE, Long.MAX_VALUE] | 1                             | ""
+
+    }
+
+    def "the greatest common divisor does not overflow silently"() {
+
+        when:
+        Integers.greatestCommonDivisor(numbers as long[])
+
+        then:
+        thrown(ArithmeticException)
+
+        where:
+        numbers                          | comment
+        [Long.MIN_VALUE]                 | ""
+        [Long.MIN_VALUE, 0]              | ""
+        [Long.MIN_VALUE, Long.MIN_VALUE] | ""
+
+    }
+
+    def "find all divisors"() {
+
+        expect:
+        Integers.divisors(number) == expectedDivisors as long[]
+        Integers.primeFactors(number) == expectedPrimeFactors
+
+        where:
+        number | expectedDivisors                                                                            | expectedPrimeFactors  | comment
+        1      | [1]                                                                                         | [:]                   | ""
+        7      | [1, 7]                                                                                      | [7L: 1]               | ""
+        12     | [1, 2, 3, 4, 6, 12]                                                                         | [2L: 2, 3L: 1]        | ""
+        360    | [1, 2, 3, 4, 5, 6, 8, 9, 10, 12, 15, 18, 20, 24, 30, 36, 40, 45, 60, 72, 90, 120, 180, 360] | [2L: 3, 3L: 2, 5L: 1] | ""
+
+    }
+
+}
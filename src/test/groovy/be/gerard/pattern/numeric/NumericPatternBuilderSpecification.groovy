@@ -0,0 +1,73 @@
+package be.gerard.pattern.numeric
+
+
+import spock.lang.Specification
+import spock.lang.Title
+
+import static be.gerard.pattern.numeric.NumericPatternTestUtils.toLongValues
+import static org.assertj.core.api.Assertions.assertThat
+
+@Title("NumericPatternBuilder")
+class NumericPatternBuilderSpecification extends Specification {
+
+    def "maintain the shortest repeating cycle while appending"() {
+
+        given:
+        NumericPatternBuilder builder = NumericPattern.builder()
+
+        when:
+        sequence.forEach(value -> builder.append(value))
+
+        then:
+        NumericPattern<Long> expectedPattern = NumericPattern.unsorted(toLongValues(sequence))
+
+        builder.size() == sequence.size()
+        assertThat(builder.build().sequence()).containsExactlyElementsOf(expectedPattern.sequence())
+        assertThat(builder.deltas().sequence()).containsExactlyElementsOf(expectedPattern.deltas().sequence())
+        assertThat(builder.shortestRepeatingCycle().sequence()).containsExactlyElementsOf(expectedPattern.shortestRepeatingCycle().sequence())
+
+        where:
+        sequence                                      | comment
+        []                                            | ""
+        [0]                                           | ""
+        [0, 1]                                        | ""
+        [0, 1, 3, 4, 6, 7]                            | ""
+        [0, 1, 3, 4, 6, 7, 9, 10, 12, 13, 15, 16]     | ""
+        (0..<12).collectMany { [3 * it, 3 * it + 1] } | "longer than the initial capacity of 16"
+        [1, 2, 3, 5, 8, 13, 21, 34, 55]               | "Fibonacci sequence"
+        [0, 2, 1, 3, 2, 4, 3, 5, 4, 6, 5, 7, 6, 8]    | "unsorted"
+        (0..<12).collectMany { [it + 2, it] }         | "unsorted, longer than the initial capacity of 16"
+
+    }
+
+    def "snapshots are not affected by later appends"() {
+
+        given:
+        NumericPatternBuilder builder = NumericPattern.builder()
+                .appendAll([0, 1, 3] as long[])
+
+        when:
+        NumericPattern<Long> snapshot = builder.build()
+        (4..40).forEach(value -> builder.append(value))
+
+        then:
+        snapshot.isSorted()
+        assertThat(snapshot.sequence()).containsExactly(0L, 1L, 3L)
+        builder.build().size() == 40
+
+    }
+
+    def "a builder with decreasing values builds an unsorted pattern"() {
+
+        when:
+        NumericPattern<Long> pattern = NumericPattern.builder()
+                .appendAll([3, 1, 2] as long[])
+                .build()
+
+        then:
+        !pattern.isSorted()
+        assertThat(pattern.sequence()).containsExactly(3L, 1L, 2L)
+
+    }
+
+}
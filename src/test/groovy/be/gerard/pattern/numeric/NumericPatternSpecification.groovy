@@ -1,9 +1,16 @@
 package be.gerard.pattern.numeric
 
+import be.gerard.pattern.numeric.internal.SequenceSortedLong
 import org.apache.commons.lang3.tuple.Pair
 import spock.lang.Specification
 import spock.lang.Title
 
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ForkJoinPool
+
 import static NumericPatternTestUtils.pair
 import static NumericPatternTestUtils.toLongValues
 import static be.gerard.pattern.numeric.NumericPatternTestUtils.range
@@ -19,6 +26,10 @@ class NumericPatternSpecification extends Specification {
         NumericPattern<Integer> pattern1 = NumericPattern.sorted(sequence1)
         NumericPattern<Integer> pattern2 = NumericPattern.sorted(sequence2)
 
+        and:
+        NumericPattern<Long> primitive1 = NumericPattern.sorted(sequence1 as long[])
+        NumericPattern<Long> primitive2 = NumericPattern.sorted(sequence2 as long[])
+
         when:
         boolean hasSameStartSequence = pattern1.startsWithSameSubsequence(pattern2)
         boolean hasSameEndSequence = pattern1.endsWithSameSubsequence(pattern2)
@@ -27,6 +38,10 @@ class NumericPatternSpecification extends Specification {
         hasSameStartSequence == isSameStartSequence
         hasSameEndSequence == isSameEndSequence
 
+        and:
+        primitive1.startsWithSameSubsequence(primitive2) == isSameStartSequence
+        primitive1.endsWithSameSubsequence(primitive2) == isSameEndSequence
+
         where:
         sequence1 | sequence2 | isSameStartSequence | isSameEndSequence | comment
         []        | []        | true                | true              | ""
@@ -75,6 +90,349 @@ class NumericPatternSpecification extends Specification {
 
     }
 
+    def "primitive backed sorted patterns behave like boxed sorted patterns"() {
+
+        given:
+        SortedNumericPattern<Long> boxed = NumericPattern.sorted(toLongValues(sequence))
+        SortedNumericPattern<Long> primitive = NumericPattern.sorted(sequence as long[])
+
+        expect:
+        primitive.sequence() == boxed.sequence()
+        primitive.intervals() == boxed.intervals()
+        primitive.findAllGaps() == boxed.findAllGaps()
+        primitive.splitDeviatingIncrements(2) == boxed.splitDeviatingIncrements(2)
+        primitive.findDistinctCombinatorialIncrements(4) == boxed.findDistinctCombinatorialIncrements(4)
+        primitive.shortestRepeatingCycle().sequence() == boxed.shortestRepeatingCycle().sequence()
+        primitive.canReach(-1L) == boxed.canReach(-1L)
+        primitive.groupCommonIncrements(4) == boxed.groupCommonIncrements(4)
+
+        where:
+        sequence                | comment
+        [0]                     | ""
+        [2, 0]                  | "unsorted input is sorted"
+        [0, 2, 2, 3, 5]         | "duplicates are removed"
+        [1, 2, 4, 5, 7, 8]      | ""
+        [0, 1, 3, 5, 8, 11, 15] | ""
+
+    }
+
+    def "primitive backed patterns do not share the arrays they are created from"() {
+
+        given:
+        long[] values = [1, 2, 4, 8]
+        SortedNumericPattern<Long> sorted = SequenceSortedLong.ofSorted(values, 4)
+        NumericPattern<Long> unsorted = NumericPattern.unsorted(values)
+
+        when:
+        values[1] = 16
+
+        then:
+        sorted.sequence() == [1L, 2L, 4L, 8L]
+        unsorted.sequence() == [1L, 2L, 4L, 8L]
+
+    }
+
+    def "primitive backed sorted patterns must be strictly increasing"() {
+
+        when:
+        SequenceSortedLong.ofSorted(values as long[], size)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        values    | size | comment
+        [1, 3, 2] | 3    | ""
+        [1, 1]    | 2    | "duplicates"
+        [1, 2]    | 3    | "size beyond the values"
+
+    }
+
+    def "patterns are equal by their sequence, whatever their implementation"() {
+
+        expect:
+        pattern.equals(other) == expectedEquality
+        other.equals(pattern) == expectedEquality
+        !expectedEquality || pattern.hashCode() == other.hashCode()
+
+        where:
+        pattern                                        | other                                                          | expectedEquality | comment
+        NumericPattern.sorted([1, 2] as long[])        | NumericPattern.sorted([1L, 2L])                                | true             | ""
+        NumericPattern.sorted([1, 2] as long[])        | NumericPattern.sorted([1, 3] as long[])                        | false            | ""
+        NumericPattern.sorted([1L, 2L])                | NumericPattern.sorted([1, 2])                                  | false            | "another number type"
+        NumericPattern.cyclic(0, [2] as long[], 2)     | NumericPattern.sorted([0L, 2L, 4L])                            | true             | ""
+        NumericPattern.cyclic(0, [2] as long[], 2)     | NumericPattern.cyclic(0, [2, 2] as long[], 1)                  | true             | "another cycle"
+        NumericPattern.cyclic(0, [1] as long[])        | NumericPattern.cyclic(0, [1] as long[], Integer.MAX_VALUE - 1) | false            | "more elements than presented"
+        NumericPattern.ranges([NumericRange.of(0, 2)]) | NumericPattern.sorted([0, 1, 2] as long[])                     | true             | ""
+        NumericPattern.empty()                         | NumericPattern.sorted([] as long[])                            | true             | ""
+        NumericPattern.unsorted([2, 1] as long[])      | NumericPattern.unsorted([2L, 1L])                              | true             | ""
+        NumericPattern.unsorted([2, 1] as long[])      | NumericPattern.unsorted([2L, 3L])                              | false            | ""
+        NumericPattern.sorted([1L, 2L])                | NumericPattern.unsorted([1L, 2L])                              | false            | "sorted and unsorted"
+
+    }
+
+    def "cyclic patterns behave like primitive backed sorted patterns"() {
+
+        given:
+        SortedNumericPattern<Long> cyclic = NumericPattern.cyclic(start, cycle as long[], repetitions)
+        SortedNumericPattern<Long> primitive = NumericPattern.sorted(cyclic.sequence().collect() as long[])
+
+        expect:
+        cyclic.size() == repetitions * cycle.size() + 1
+        cyclic.sequence() == primitive.sequence()
+        cyclic.last() == primitive.last()
+        cyclic.intervals() == primitive.intervals()
+        cyclic.shortestRepeatingCycle().sequence() == primitive.shortestRepeatingCycle().sequence()
+        cyclic.findAllGaps() == primitive.findAllGaps()
+        cyclic.splitDeviatingIncrements(2) == primitive.splitDeviatingIncrements(2)
+        (-20L..60L).every { cyclic.canReach(it) == primitive.canReach(it) }
+        cyclic.groupCommonIncrements(4) == primitive.groupCommonIncrements(4)
+
+        where:
+        start | cycle     | repetitions | comment
+        5     | [2]       | 0           | "only the start"
+        5     | [2]       | 6           | ""
+        -3    | [1, 2]    | 1           | ""
+        -3    | [1, 2]    | 5           | ""
+        0     | [1, 2, 1] | 1           | "shorter partial cycle"
+        0     | [1, 2, 1] | 4           | ""
+        0     | [3, 3]    | 3           | "repeating cycle"
+
+    }
+
+    def "unbounded cyclic patterns are derived from their cycle"() {
+
+        given:
+        SortedNumericPattern<Long> cyclic = NumericPattern.cyclic(10, [1, 1, 4] as long[])
+
+        expect:
+        cyclic.size() == Integer.MAX_VALUE
+        cyclic.first() == 10L
+        cyclic.sequence().get(999_999) == 10L + 1_999_998L
+        cyclic.last() == 10L + (Integer.MAX_VALUE - 1) / 3 * 6L
+        cyclic.streamAllGaps().limit(2).toList() == [pair(12L, 16L), pair(18L, 22L)]
+        cyclic.streamSplitDeviatingIncrements(1).limit(2).toList() == [[10L, 11L, 12L], [16L, 17L, 18L]]
+        cyclic.canReach(6_000_000_011L)
+        !cyclic.canReach(6_000_000_014L)
+        cyclic.shortestRepeatingCycle().sequence() == [1L, 1L, 4L]
+
+    }
+
+    def "unbounded cyclic patterns can not be grouped"() {
+
+        given:
+        SortedNumericPattern<Long> cyclic = NumericPattern.cyclic(10, [1, 1, 4] as long[])
+
+        when:
+        cyclic."$grouping"(argument)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        grouping                | argument | comment
+        "groupCommonIncrements" | 4        | ""
+        "groupCycles"           | 12       | ""
+
+    }
+
+    def "unbounded cyclic patterns end at the last element up to the largest long"() {
+
+        given:
+        SortedNumericPattern<Long> cyclic = NumericPattern.cyclic(start, cycle as long[])
+
+        expect:
+        cyclic.sequence() == expectedSequence
+        SortedNumericPattern.isSorted(cyclic.sequence())
+
+        where:
+        start               | cycle  | expectedSequence                                                              | comment
+        Long.MAX_VALUE - 10 | [5]    | [Long.MAX_VALUE - 10, Long.MAX_VALUE - 5, Long.MAX_VALUE]                     | ""
+        Long.MAX_VALUE - 10 | [4, 2] | [Long.MAX_VALUE - 10, Long.MAX_VALUE - 6, Long.MAX_VALUE - 4, Long.MAX_VALUE] | ""
+        Long.MAX_VALUE      | [1]    | [Long.MAX_VALUE]                                                              | "only the start"
+
+    }
+
+    def "bounded cyclic patterns must fit in a long"() {
+
+        when:
+        NumericPattern.cyclic(start, cycle as long[], repetitions)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        start               | cycle               | repetitions | comment
+        Long.MAX_VALUE - 10 | [5]                 | 3           | ""
+        Long.MIN_VALUE      | [Long.MAX_VALUE]    | 3           | ""
+        0                   | [Long.MAX_VALUE, 1] | 1           | "the cycle itself is too long"
+
+    }
+
+    def "file backed sorted patterns behave like primitive backed sorted patterns"() {
+
+        given:
+        Path file = Files.createTempFile("pattern", ".bin")
+        Files.write(file, ByteBuffer.allocate(sequence.size() * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .with { buffer -> sequence.each { buffer.putLong(it) }; buffer.array() }
+        )
+
+        and:
+        SortedNumericPattern<Long> primitive = NumericPattern.sorted(sequence as long[])
+        SortedNumericPattern<Long> mapped = NumericPattern.mapped(file)
+
+        expect:
+        mapped.sequence() == primitive.sequence()
+        mapped.size() == primitive.size()
+        mapped.intervals() == primitive.intervals()
+        mapped.findAllGaps() == primitive.findAllGaps()
+        mapped.streamAllGaps().toList() == primitive.findAllGaps()
+        mapped.splitDeviatingIncrements(2) == primitive.splitDeviatingIncrements(2)
+        mapped.streamSplitDeviatingIncrements(2).toList() == primitive.splitDeviatingIncrements(2)
+        mapped.findDistinctCombinatorialIncrements(4) == primitive.findDistinctCombinatorialIncrements(4)
+        mapped.canReach(-1L) == primitive.canReach(-1L)
+        mapped.groupCommonIncrements(4) == primitive.groupCommonIncrements(4)
+
+        cleanup:
+        Files.deleteIfExists(file)
+
+        where:
+        sequence                        | comment
+        []                              | ""
+        [0]                             | ""
+        [1, 2, 4, 5, 7, 8]              | ""
+        [0, 1, 3, 5, 8, 11, 15]         | ""
+        [-5, -3, -1, 0, 2, 4, 1L << 40] | ""
+
+    }
+
+    def "file backed patterns must be strictly increasing longs"() {
+
+        given:
+        Path file = Files.createTempFile("pattern", ".bin")
+        Files.write(file, bytes as byte[])
+
+        when:
+        NumericPattern.mapped(file)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        cleanup:
+        Files.deleteIfExists(file)
+
+        where:
+        bytes                                            | comment
+        [1, 0, 0]                                        | "not whole longs"
+        [2, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0] | "decreasing"
+        [1, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0] | "duplicates"
+
+    }
+
+    def "set operations match the set operations of the elements"() {
+
+        given:
+        SortedNumericPattern<Long> left = NumericPattern.sorted(leftSequence as long[])
+        SortedNumericPattern<Long> right = rightRanges
+                ? NumericPattern.ranges(rightSequence.collect { range(it[0] as long, it[1] as long) })
+                : NumericPattern.sorted(rightSequence as long[])
+
+        and:
+        Set<Long> leftValues = left.sequence() as Set
+        Set<Long> rightValues = right.sequence() as Set
+
+        expect:
+        left.union(right).sequence() == (leftValues + rightValues).sort()
+        left.intersection(right).sequence() == leftValues.intersect(rightValues).sort()
+        left.difference(right).sequence() == (leftValues - rightValues).sort()
+        right.difference(left).sequence() == (rightValues - leftValues).sort()
+        left.symmetricDifference(right).sequence() == ((leftValues + rightValues) - leftValues.intersect(rightValues)).sort()
+
+        where:
+        leftSequence                     | rightSequence                                | rightRanges | comment
+        []                               | []                                           | false       | ""
+        [1, 2, 3]                        | []                                           | false       | ""
+        [1, 2, 3, 10]                    | [2, 3, 4, 9]                                 | false       | "arrays"
+        [-70_000, -1, 0, 65_535, 65_536] | [[-65_537, 0], [65_536, 65_540]]             | true        | "runs across chunks"
+        (0..<20_000).collect { 3 * it }  | (0..<20_000).collect { 3 * it + it % 2 }     | false       | "bitmaps"
+        (0..<20_000).collect { 3 * it }  | [[5, 100_000], [200_000, 200_010]]           | true        | "bitmaps and runs"
+        [7, 70_000, 1L << 40]            | [[0, 1_000_000], [(1L << 40) - 5, 1L << 40]] | true        | "sparse and dense"
+
+    }
+
+    def "set operations keep their result as runs for further operations"() {
+
+        given:
+        SortedNumericPattern<Long> dense = NumericPattern.ranges([range(0L, 1_000_000_000L), range(2_000_000_000L, 2_000_000_010L)])
+        SortedNumericPattern<Long> sparse = NumericPattern.sorted([-3L, 5L, 999_999_999L, 1_500_000_000L, 2_000_000_005L] as long[])
+
+        when:
+        SortedNumericPattern<Long> result = dense.difference(sparse).union(NumericPattern.ranges([range(4L, 6L)]))
+
+        then:
+        result.size() == 1_000_000_001 + 11 - 2
+        result.first() == 0L
+        result.last() == 2_000_000_010L
+        result.findAllGaps() == [pair(999_999_998L, 1_000_000_000L), pair(1_000_000_000L, 2_000_000_000L), pair(2_000_000_004L, 2_000_000_006L)]
+        dense.intersection(sparse).sequence() == [5L, 999_999_999L, 2_000_000_005L]
+
+    }
+
+    def "ranges may overlap but not exceed the size of a pattern"() {
+
+        when:
+        SortedNumericPattern<Long> pattern = NumericPattern.ranges(ranges)
+
+        then:
+        pattern.sequence() == expectedSequence
+
+        where:
+        ranges                                       | expectedSequence                     | comment
+        []                                           | []                                   | ""
+        [range(5L, 7L), range1(3L), range(6L, 9L)]   | [3L, 5L, 6L, 7L, 8L, 9L]             | ""
+        [range(-2L, -1L), range(0L, 1L), range1(0L)] | [-2L, -1L, 0L, 1L]                   | "adjacent"
+        [range(Long.MAX_VALUE - 1, Long.MAX_VALUE)]  | [Long.MAX_VALUE - 1, Long.MAX_VALUE] | ""
+
+    }
+
+    def "ranges of more numbers than a pattern holds are rejected"() {
+
+        when:
+        NumericPattern.ranges(ranges)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        ranges                                                          | comment
+        [range(0L, Integer.MAX_VALUE.longValue())]                      | ""
+        [range(Long.MIN_VALUE, Long.MAX_VALUE)]                         | "the length overflows"
+        [range(0L, 1L << 30), range(1L << 40, (1L << 40) + (1L << 30))] | ""
+
+    }
+
+    def "primitive backed unsorted patterns behave like boxed unsorted patterns"() {
+
+        given:
+        NumericPattern<Long> boxed = NumericPattern.unsorted(toLongValues(sequence))
+        NumericPattern<Long> primitive = NumericPattern.unsorted(sequence as long[])
+
+        expect:
+        !primitive.isSorted()
+        primitive.sequence() == boxed.sequence()
+        primitive.intervals() == boxed.intervals()
+        primitive.deltas().sequence() == boxed.deltas().sequence()
+
+        where:
+        sequence        | comment
+        [0]             | ""
+        [2, 0]          | ""
+        [0, 2, 2, 3, 5] | ""
+        [5, 1, 2, 1, 2] | ""
+
+    }
+
     def "find shortest repeating subsequence"() {
 
         when:
@@ -95,6 +453,8 @@ class NumericPatternSpecification extends Specification {
         [0, 1, 0, 1, 0]                    | [0, 1]                               | ""
 
         [0, 1, 0, 2]                       | [0, 1, 0, 2]                         | ""
+        [1, 2, 1, 1, 2, 1, 1]              | [1, 2, 1]                            | ""
+        [1, 1, 2, 1, 1, 2, 1, 1, 1]        | [1, 1, 2, 1, 1, 2, 1]                | ""
 
         [1, 1, 2, 3, 5, 8, 13, 21, 34, 55] | [1, 1, 2, 3, 5, 8, 13, 21, 34, 55]   | "Fibonacci sequence"
 
@@ -204,6 +564,12 @@ class NumericPatternSpecification extends Specification {
 
         [1, 2, 4, 7] | -1     | false    | ""
 
+        [100, 102]   | 50     | true     | "more than one cycle before the first element"
+        [100, 102]   | 51     | false    | ""
+        [1, 2, 4, 5] | 8      | true     | "after the last element"
+        [3]          | 3      | true     | "a single element does not repeat"
+        [3]          | 6      | false    | ""
+
     }
 
     def "find all possible subsequences"() {
@@ -299,6 +665,27 @@ class NumericPatternSpecification extends Specification {
 
     }
 
+    def "find all runs"() {
+
+        when:
+        Set<Fit.Sequential<Integer>> runs = NumericPattern.findAllRuns(sequence);
+
+        then:
+        assertThat(runs).containsExactlyInAnyOrderElementsOf(expectedRuns)
+
+        where:
+        sequence                       | expectedRuns                                                                         | comment
+        []                             | []                                                                                   | ""
+        [1]                            | []                                                                                   | ""
+        [1, 1]                         | [Fit.sequential([1, 1], [1])]                                                        | ""
+        [1, 2, 1]                      | []                                                                                   | "the repeating subsequence has to fit at least twice"
+        [1, 2, 1, 2]                   | [Fit.sequential([1, 2, 1, 2], [1, 2])]                                               | ""
+        [1, 2, 1, 2, 1, 3, 4, 3]       | [Fit.sequential([1, 2, 1, 2, 1], [1, 2])]                                            | ""
+        [1, 1, 2, 1, 1, 2, 1, 1]       | [Fit.sequential([1, 1, 2, 1, 1, 2, 1, 1], [1, 1, 2]), Fit.sequential([1, 1], [1])]  | ""
+        [2, 1, 2, 1, 1, 2, 1, 1, 2, 2] | [Fit.sequential([2, 1, 2, 1], [1, 2]), Fit.sequential([1, 2, 1, 1, 2, 1, 1, 2], [1, 1, 2]), Fit.sequential([1, 1], [1]), Fit.sequential([2, 2], [2])] | ""
+
+    }
+
     def "find all variations"() {
 
         when:
@@ -318,24 +705,65 @@ class NumericPatternSpecification extends Specification {
 
     }
 
+    def "stream all variations"() {
+
+        when:
+        List<List<Integer>> variations = NumericPattern.streamAllVariations(sequence).toList()
+
+        then:
+        assertThat(variations).containsExactlyElementsOf(expectedVariations)
+
+        where:
+        sequence     | expectedVariations                | comment
+        []           | []                                | ""
+        [1]          | [[1]]                             | ""
+        [1, 1]       | [[1, 1]]                          | ""
+        [1, 2, 1]    | [[1, 2, 1], [2, 1, 1], [1, 1, 2]] | ""
+        [1, 2, 1, 2] | [[1, 2, 1, 2], [2, 1, 2, 1]]      | "rotations are only streamed once"
+
+    }
+
     def "find base variation"() {
 
         when:
         List<Integer> baseVariation = NumericPattern.findBaseVariation(sequence);
 
         then:
-        assertThat(baseVariation).containsExactlyInAnyOrderElementsOf(expectedBaseVariation)
+        assertThat(baseVariation).containsExactlyElementsOf(expectedBaseVariation)
+
+        where:
+        sequence     | expectedBaseVariation | comment
+        []           | []                    | ""
+        [1]          | [1]                   | ""
+        [1, 1]       | [1, 1]                | ""
+        [1, 2]       | [1, 2]                | ""
+        [1, 2, 1]    | [1, 1, 2]             | ""
+        [1, 2, 3]    | [1, 2, 3]             | ""
+        [2, 3, 1]    | [1, 2, 3]             | ""
+        [3, 1, 2]    | [1, 2, 3]             | ""
+        [2, 1, 1]    | [1, 1, 2]             | ""
+        [2, 1, 2, 1] | [1, 2, 1, 2]          | ""
+
+    }
+
+    def "variations do not change along with the sequence"() {
+
+        given:
+        List<Integer> mutableSequence = new ArrayList<>(sequence)
+        List<Integer> baseVariation = NumericPattern.findBaseVariation(mutableSequence)
+        Set<List<Integer>> variations = NumericPattern.findAllVariations(mutableSequence)
+
+        when:
+        mutableSequence[1] = 5
+
+        then:
+        baseVariation == expectedBaseVariation
+        variations == NumericPattern.findAllVariations(sequence)
 
         where:
         sequence  | expectedBaseVariation | comment
-        []        | []                    | ""
-        [1]       | [1]                   | ""
-        [1, 1]    | [1, 1]                | ""
-        [1, 2]    | [1, 2]                | ""
-        [1, 2, 1] | [1, 1, 2]             | ""
-        [1, 2, 3] | [1, 2, 3]             | ""
-        [2, 3, 1] | [1, 2, 3]             | ""
-        [3, 1, 2] | [1, 2, 3]             | ""
+        [2, 1, 3] | [1, 3, 2]             | ""
+        [1, 2, 3] | [1, 2, 3]             | "already the smallest rotation"
 
     }
 
@@ -431,6 +859,27 @@ class NumericPatternSpecification extends Specification {
 
     }
 
+    def "find all fitting repeatable subsequences with their ranges"() {
+
+        when:
+        List<? extends Pair<List<Integer>, NumericRange<Integer>>> result = NumericPattern.findAllFittingRepeatableSubsequencesWithTheirRanges(
+                sequence,
+                repeatableSubsequences
+        )
+
+        then:
+        assertThat(result).isEqualTo(expectedResult)
+
+        where:
+        sequence                             | repeatableSubsequences | expectedResult                                                      | comment
+        []                                   | []                     | []                                                                  | ""
+        [1, 2]                               | [[3]]                  | []                                                                  | "nothing fits"
+        [1, 1, 1]                            | [[1]]                  | [Pair.of([1], range(0, 2))]                                         | ""
+        [1, 2, 1]                            | [[1, 2], [1, 2, 1]]    | [Pair.of([1, 2, 1], range(0, 2))]                                   | ""
+        [1, 2, 1, 1, 2, 1, 2, 2, 1, 2, 2, 1] | [[1, 1, 2], [1, 2, 2]] | [Pair.of([1, 1, 2], range(0, 5)), Pair.of([1, 2, 2], range(4, 11))] | ""
+
+    }
+
     def "split by most likely pattern"() {
 
         when:
@@ -466,6 +915,72 @@ class NumericPatternSpecification extends Specification {
 
     }
 
+    def "split by most likely pattern in parallel"() {
+
+        given:
+        ForkJoinPool pool = new ForkJoinPool(4)
+
+        when:
+        Set<NumericRange<Integer>> split = NumericPattern.splitByMostLikelyPattern(sequence, pool)
+
+        then:
+        split == NumericPattern.splitByMostLikelyPattern(sequence)
+
+        cleanup:
+        pool.shutdown()
+
+        where:
+        sequence                                                                  | comment
+        []                                                                        | ""
+        [1]                                                                       | ""
+        [1, 2, 1, 2, 1, 3, 4, 3, 4, 3, 1, 2, 1]                                   | ""
+        [1, 2, 1, 1, 2, 1, 1, 2, 1, 0, 2, 1, 2, 2, 1, 2, 2, 1, 2]                 | ""
+        (0..<200).collect { [1, 2, 1, 3][it % 4] + (it % 17 == 0 ? 5 : 0) }       | "noisy cycle"
+        new Random(7).with { random -> (0..<200).collect { random.nextInt(4) } }  | "random"
+
+    }
+
+    def "find distinct combinatorial increments"() {
+
+        given:
+        final NumericPattern<Integer> pattern = isSorted ? NumericPattern.sorted(sequence) : NumericPattern.unsorted(sequence)
+
+        expect:
+        pattern.findDistinctCombinatorialIncrements(maxLength) == expectedIncrements as Set
+        pattern.streamDistinctCombinatorialIncrements(maxLength).toArray() == expectedIncrements.sort() as long[]
+
+        where:
+        sequence        | isSorted | maxLength | expectedIncrements | comment
+        []              | true     | 4         | []                 | ""
+        [0]             | true     | 4         | []                 | ""
+        [0, 1, 3, 7]    | true     | 0         | []                 | ""
+        [0, 1, 3, 7]    | true     | 4         | [1, 2, 3, 4]       | ""
+        [0, 1, 3, 7]    | true     | 100       | [1, 2, 3, 4, 6, 7] | ""
+        [0, 5, 1]       | false    | 2         | [-4, 1]            | "unsorted increments can shrink again"
+        [3, 1, 1]       | false    | 0         | [-2, 0]            | ""
+
+    }
+
+    def "dense sorted patterns find the same combinatorial increments"() {
+
+        given:
+        final List<Integer> sequence = new Random(seed).with { random -> (0..<range).findAll { random.nextInt(100) < density } }
+        final SortedNumericPattern<Integer> pattern = NumericPattern.sorted(sequence)
+        final Set<Long> expectedIncrements = NumericPattern.unsorted(sequence).findDistinctCombinatorialIncrements(maxLength)
+
+        expect:
+        pattern.findDistinctCombinatorialIncrements(maxLength) == expectedIncrements
+        pattern.combinatorialIncrementBitmap(maxLength).stream().toArray() == expectedIncrements.sort() as int[]
+        NumericPattern.sorted(sequence as long[]).combinatorialIncrementBitmap(maxLength) == pattern.combinatorialIncrementBitmap(maxLength)
+
+        where:
+        seed | range | density | maxLength | comment
+        1    | 2000  | 50      | 1500      | "autocorrelation"
+        2    | 2000  | 99      | 10        | "pairwise"
+        3    | 2000  | 1       | 1500      | "pairwise"
+
+    }
+
     def "split deviating increments"() {
 
         given:
@@ -520,6 +1035,7 @@ class NumericPatternSpecification extends Specification {
         [0, 1, 3]                   | 1              | [Fit.incremental([0, 1], 1), Fit.none([3])]                                                                         | ""
         [-2, 0, 1, 3]               | 1              | [Fit.incremental([0, 1], 1), Fit.none([-2, 3])]                                                                     | ""
         [-1, 0, 1, 3]               | 1              | [Fit.incremental([-1, 0, 1], 1), Fit.none([3])]                                                                     | ""
+        [-3, -1, 1, 3]              | 2              | [Fit.incremental([-3, -1], 2), Fit.incremental([1, 3], 2)]                                                          | ""
 
         [0, 5, 10, 15, 20]          | 4              | [Fit.none([0, 5, 10, 15, 20])]                                                                                      | ""
         [0, 5, 10, 15, 20]          | 5              | [Fit.incremental([0, 5, 10, 15, 20], 5)]                                                                            | ""
@@ -570,6 +1086,9 @@ class NumericPatternSpecification extends Specification {
         [0, 3, 4, 6, 9, 10]                    | 12            | [Fit.incremental([0, 3, 6, 9], 3), Fit.incremental([4, 10], 6)]       | ""
         [0, 3, 5, 6, 9, 11]                    | 12            | [Fit.incremental([0, 3, 6, 9], 3), Fit.incremental([5, 11], 6)]       | ""
 
+        [-6, -3, 0, 3]                         | 12            | [Fit.incremental([-6, -3, 0, 3], 3)]                                  | "negative residues"
+        [-5, -3, 0, 3, 6]                      | 12            | [Fit.incremental([-3, 0, 3, 6], 3), Fit.none([-5])]                   | ""
+
     }
 
 
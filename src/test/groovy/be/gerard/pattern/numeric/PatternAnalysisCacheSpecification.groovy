@@ -0,0 +1,154 @@
+package be.gerard.pattern.numeric
+
+import spock.lang.Specification
+import spock.lang.Title
+
+import java.util.stream.IntStream
+
+@Title("PatternAnalysisCache")
+class PatternAnalysisCacheSpecification extends Specification {
+
+    def "cached analyses are the same as the analyses"() {
+
+        given:
+        PatternAnalysisCache cache = PatternAnalysisCache.of(1_000, PatternAnalysisCache.Normalization.START_OFFSET)
+        List<Long> shifted = sequence.collect { it + shift }
+        SortedNumericPattern<Long> sorted = NumericPattern.sorted(sequence.toSet() as long[])
+        SortedNumericPattern<Long> shiftedSorted = NumericPattern.sorted(sequence.toSet().collect { it + shift } as long[])
+
+        expect:
+        cache.splitByMostLikelyPattern(sequence) == NumericPattern.splitByMostLikelyPattern(sequence)
+        cache.splitByMostLikelyPattern(shifted) == NumericPattern.splitByMostLikelyPattern(shifted)
+        cache.findAllBestFittingSubsequences(sequence) == NumericPattern.findAllBestFittingSubsequences(sequence)
+        cache.findAllBestFittingSubsequences(shifted) == NumericPattern.findAllBestFittingSubsequences(shifted)
+        cache.groupCommonIncrements(sorted, 3) == sorted.groupCommonIncrements(3)
+        cache.groupCommonIncrements(shiftedSorted, 3) == shiftedSorted.groupCommonIncrements(3)
+
+        and:
+        cache.statistics().hitCount() == 2
+        cache.statistics().missCount() == 4
+
+        where:
+        sequence                                 | shift | comment
+        [1L, 2L, 1L, 2L, 1L, 2L, 7L]             | 100   | ""
+        [1L, 2L, 1L, 2L, 1L, 2L, 7L]             | -5    | "values cross zero"
+        [0L, 3L, 4L, 5L, 0L, 3L, 4L, 5L, 9L, 1L] | -4    | ""
+        [1L, 5L, 9L, 13L, 14L, 16L, 18L]         | -10   | ""
+
+    }
+
+    def "grouping common increments is not shared by shifted sequences"() {
+
+        given:
+        PatternAnalysisCache cache = PatternAnalysisCache.of(1_000, PatternAnalysisCache.Normalization.START_OFFSET)
+        SortedNumericPattern<Long> sorted = NumericPattern.sorted(sequence as long[])
+        SortedNumericPattern<Long> shifted = NumericPattern.sorted(sequence.collect { it + shift } as long[])
+
+        expect:
+        cache.groupCommonIncrements(sorted, maxIncrement) == sorted.groupCommonIncrements(maxIncrement)
+        cache.groupCommonIncrements(shifted, maxIncrement) == shifted.groupCommonIncrements(maxIncrement)
+
+        and:
+        cache.statistics().hitCount() == 0
+
+        where:
+        sequence                    | shift | maxIncrement | comment
+        [1L, 3L]                    | -2    | 2            | "values cross zero"
+        [1L, 3L, 5L, 6L, 9L]        | -5    | 2            | "values cross zero"
+        [1L, 5L, 9L, 13L, 14L, 16L] | 100   | 4            | ""
+
+    }
+
+    def "sequences are only equal keys when they have the same values"() {
+
+        given:
+        PatternAnalysisCache cache = PatternAnalysisCache.of(1_000, normalization)
+
+        when:
+        cache.splitByMostLikelyPattern([1L, 2L, 1L, 2L])
+        cache.splitByMostLikelyPattern(other)
+
+        then:
+        cache.statistics().hitCount() == expectedHitCount
+
+        where:
+        other                  | normalization                                   | expectedHitCount | comment
+        [1L, 2L, 1L, 2L]       | PatternAnalysisCache.Normalization.NONE         | 1                | ""
+        [1, 2, 1, 2]           | PatternAnalysisCache.Normalization.NONE         | 1                | "another number type"
+        [11L, 12L, 11L, 12L]   | PatternAnalysisCache.Normalization.NONE         | 0                | ""
+        [11L, 12L, 11L, 12L]   | PatternAnalysisCache.Normalization.START_OFFSET | 1                | ""
+        [1L, 2L, 1L, 3L]       | PatternAnalysisCache.Normalization.START_OFFSET | 0                | ""
+        [1L, 2L, 1L, 2L, 1L]   | PatternAnalysisCache.Normalization.START_OFFSET | 0                | ""
+
+    }
+
+    def "results are rebuilt from the elements of the sequence"() {
+
+        given:
+        PatternAnalysisCache cache = PatternAnalysisCache.of(1_000, PatternAnalysisCache.Normalization.START_OFFSET)
+
+        when:
+        cache.findAllBestFittingSubsequences([1L, 2L, 1L, 2L, 1L])
+        Set<List<Integer>> subsequences = cache.findAllBestFittingSubsequences([4, 5, 4, 5, 4])
+
+        then:
+        subsequences == [[4, 5]] as Set
+        subsequences.every { subsequence -> subsequence.every { it instanceof Integer } }
+
+    }
+
+    def "the least recently used entries are evicted beyond the maximum weight"() {
+
+        given:
+        PatternAnalysisCache cache = PatternAnalysisCache.of(20, PatternAnalysisCache.Normalization.NONE)
+
+        when:
+        cache.splitByMostLikelyPattern([1L, 2L, 1L, 2L, 1L, 2L])
+        cache.splitByMostLikelyPattern([3L, 4L, 3L, 4L, 3L, 4L])
+        cache.splitByMostLikelyPattern([1L, 2L, 1L, 2L, 1L, 2L])
+        cache.splitByMostLikelyPattern([5L, 6L, 5L, 6L, 5L, 6L])
+        cache.splitByMostLikelyPattern([1L, 2L, 1L, 2L, 1L, 2L])
+        cache.splitByMostLikelyPattern([3L, 4L, 3L, 4L, 3L, 4L])
+        cache.splitByMostLikelyPattern((1L..40L).toList())
+
+        then:
+        with(cache.statistics()) {
+            hitCount() == 2
+            missCount() == 5
+            evictionCount() == 2
+            entryCount() == 2
+            weight() <= 20
+        }
+
+    }
+
+    def "concurrent analyses share the cache"() {
+
+        given:
+        PatternAnalysisCache cache = PatternAnalysisCache.of(10_000, PatternAnalysisCache.Normalization.START_OFFSET)
+        List<List<Long>> sequences = (0..<8).collect { offset -> [0L, 1L, 3L, 0L, 1L, 3L, 7L].collect { it + offset } }
+
+        when:
+        List<Set<NumericRange<Integer>>> splits = IntStream.range(0, 400)
+                .parallel()
+                .mapToObj { cache.splitByMostLikelyPattern(sequences[it % sequences.size()]) }
+                .toList()
+
+        then:
+        splits.every { it == NumericPattern.splitByMostLikelyPattern(sequences[0]) }
+        cache.statistics().hitCount() + cache.statistics().missCount() == 400
+        cache.statistics().entryCount() == 1
+
+    }
+
+    def "the maximum weight must be positive"() {
+
+        when:
+        PatternAnalysisCache.of(0, PatternAnalysisCache.Normalization.NONE)
+
+        then:
+        thrown(IllegalArgumentException)
+
+    }
+
+}
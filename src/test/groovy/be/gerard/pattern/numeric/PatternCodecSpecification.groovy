@@ -0,0 +1,171 @@
+package be.gerard.pattern.numeric
+
+import spock.lang.Specification
+import spock.lang.Title
+
+import java.nio.BufferUnderflowException
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+
+@Title("PatternCodec")
+class PatternCodecSpecification extends Specification {
+
+    def "patterns survive a round trip"() {
+
+        given:
+        ByteBuffer buffer = ByteBuffer.allocate(1024)
+
+        when:
+        PatternCodec.encode(pattern, buffer)
+        NumericPattern<Long> decoded = PatternCodec.decodePattern(buffer.flip())
+
+        then:
+        decoded.sequence() == pattern.sequence()
+        decoded.isSorted() == pattern.isSorted()
+        !buffer.hasRemaining()
+
+        where:
+        pattern                                                   | comment
+        NumericPattern.empty()                                    | ""
+        NumericPattern.sorted([5L])                               | ""
+        NumericPattern.sorted([1L, 2L, 4L, 5L, 7L, 8L])           | "cycle"
+        NumericPattern.sorted([0L, 1L, 3L, 5L, 8L, 11L, 15L])     | "no cycle"
+        NumericPattern.unsorted([3L, -1L, 3L, -1L, 3L])           | "negative deltas"
+        NumericPattern.unsorted([Long.MIN_VALUE, Long.MAX_VALUE]) | "extreme values"
+
+    }
+
+    def "a repeating pattern only encodes its cycle"() {
+
+        given:
+        ByteBuffer buffer = ByteBuffer.allocate(64)
+        long[] sequence = (0L..<100_000L).collect { 10 * it + [0, 3, 4][(int) (it % 3)] } as long[]
+
+        when:
+        PatternCodec.encode(NumericPattern.sorted(sequence), buffer)
+
+        then:
+        buffer.position() < 16
+        PatternCodec.decodePattern(buffer.flip()).sequence() == sequence as List
+
+    }
+
+    def "cyclic patterns only encode their cycle"() {
+
+        given:
+        ByteBuffer buffer = ByteBuffer.allocate(64)
+
+        when:
+        PatternCodec.encode(pattern, buffer)
+
+        then:
+        buffer.position() <= expectedSize
+
+        and:
+        PatternCodec.decodePattern(buffer.flip()) == expectedPattern
+
+        where:
+        pattern                                                | expectedSize | expectedPattern                                   | comment
+        NumericPattern.cyclic(-7, [1, 2, 1] as long[], 1)      | 7            | NumericPattern.sorted([-7, -6, -4, -3] as long[]) | "the cycle does not repeat"
+        NumericPattern.cyclic(-7, [1, 2, 1] as long[], 3)      | 9            | pattern                                           | ""
+        NumericPattern.cyclic(-7, [1, 2, 1] as long[])         | 16           | pattern                                           | "unbounded"
+        NumericPattern.cyclic(10, [1, 1, 4] as long[])         | 16           | pattern                                           | "unbounded"
+        NumericPattern.cyclic(0, [2] as long[], 3_000_000_000) | 10           | pattern                                           | "more elements than presented"
+
+    }
+
+    def "fits survive a round trip"() {
+
+        given:
+        ByteBuffer buffer = ByteBuffer.allocate(1024)
+
+        when:
+        PatternCodec.encode(fit, buffer)
+        Fit<Long> decoded = PatternCodec.decodeFit(buffer.flip())
+
+        then:
+        decoded == fit
+        buffer.position() == expectedSize
+
+        where:
+        fit                                            | expectedSize | comment
+        Fit.incremental([-4L, 0L, 4L, 8L], 4)          | 4            | "first, size and increment"
+        Fit.none([2L, 3L, 7L])                         | 6            | ""
+        Fit.sequential([1L, 2L, 1L, 2L, 1L], [1L, 2L]) | 11           | ""
+
+    }
+
+    def "ranges survive a round trip"() {
+
+        given:
+        ByteBuffer buffer = ByteBuffer.allocate(32)
+
+        when:
+        PatternCodec.encode(range, buffer)
+
+        then:
+        PatternCodec.decodeRange(buffer.flip()) == range
+
+        where:
+        range                                           | comment
+        NumericRange.of(3L, 3L)                         | ""
+        NumericRange.of(-10L, 10L)                      | ""
+        NumericRange.of(Long.MIN_VALUE, Long.MAX_VALUE) | "the difference overflows"
+
+    }
+
+    def "writing to a channel writes the same bytes as encoding into a buffer"() {
+
+        given:
+        Set<Fit<Long>> fits = (0L..<2_000L).collect { Fit.incremental([10 * it, 11 * it + 1], it + 1) } as Set
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20)
+        ByteArrayOutputStream stream = new ByteArrayOutputStream()
+
+        when:
+        PatternCodec.encodeFits(fits, buffer)
+        PatternCodec.writeFits(fits, Channels.newChannel(stream))
+
+        then:
+        stream.toByteArray() == Arrays.copyOf(buffer.array(), buffer.position())
+        stream.size() > PatternCodec.CHANNEL_BUFFER_SIZE
+        PatternCodec.decodeFits(ByteBuffer.wrap(stream.toByteArray())) == fits
+
+    }
+
+    def "repeating deltas are not expanded while decoding"() {
+
+        when:
+        NumericPattern<Long> pattern = PatternCodec.decodePattern(ByteBuffer.wrap([2, -1, -1, -1, -1, 7, 0, 1, 2, 2, 1] as byte[]))
+
+        then:
+        pattern.size() == Integer.MAX_VALUE
+        pattern.sequence().subList(0, 5) == [0L, 1L, 0L, 1L, 0L]
+        pattern.sequence().last() == 0L
+
+    }
+
+    def "malformed input is rejected"() {
+
+        when:
+        decoder(ByteBuffer.wrap(bytes as byte[]))
+
+        then:
+        thrown(expectedException)
+
+        where:
+        decoder                     | bytes                                              | expectedException        | comment
+        PatternCodec::decodePattern | [7]                                                | IllegalArgumentException | "unknown tag"
+        PatternCodec::decodeRange   | [1]                                                | IllegalArgumentException | "not a range"
+        PatternCodec::decodePattern | [1, 2, 0, 0, 1]                                    | IllegalArgumentException | "sorted pattern with a negative delta"
+        PatternCodec::decodePattern | [2, 3, 0, 1, 5, 2]                                 | IllegalArgumentException | "cycle longer than the deltas"
+        PatternCodec::decodePattern | [2, 3, 0]                                          | BufferUnderflowException | "truncated"
+        PatternCodec::decodePattern | [2, 3, 0, 0, 2]                                    | IllegalArgumentException | "fewer bytes than deltas"
+        PatternCodec::decodePattern | [2, -1, -1, -1, -1, 7, 0, 0, 2]                    | IllegalArgumentException | "corrupt size"
+        PatternCodec::decodePattern | [1, -1, -1, -1, -1, 7, 0, 0, 2]                    | IllegalArgumentException | "corrupt size of a sorted pattern"
+        PatternCodec::decodePattern | [2, -1, -1, -1, -1, 7, 0, 1, -2, -1, -1, -1, 7, 2] | IllegalArgumentException | "corrupt cycle length"
+        PatternCodec::decodePattern | [1, -1, -1, -1, -1, 7, 0, 1, -2, -1, -1, -1, 7, 2] | IllegalArgumentException | "corrupt cycle length of a cyclic pattern"
+        PatternCodec::decodeFit     | [5, 0]                                             | IllegalArgumentException | "empty fit"
+
+    }
+
+}
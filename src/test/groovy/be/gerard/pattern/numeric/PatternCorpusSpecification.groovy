@@ -0,0 +1,73 @@
+package be.gerard.pattern.numeric
+
+import spock.lang.Specification
+import spock.lang.Title
+
+@Title("PatternCorpus")
+class PatternCorpusSpecification extends Specification {
+
+    static final List<List<Long>> SEQUENCES = [
+            [1L, 2L, 3L, 4L],
+            [1L, 2L, 5L],
+            [1L, 2L],
+            [7L, 2L, 3L, 4L],
+            [10L, 11L, 12L, 13L],
+            [],
+            [1L, 2L, 5L]
+    ]
+
+    def "find the longest common prefix and suffix"() {
+
+        given:
+        PatternCorpus<Long> corpus = PatternCorpus.of(SEQUENCES.collect { NumericPattern.unsorted(it) }, key)
+        NumericPattern<Long> pattern = NumericPattern.unsorted(sequence as long[])
+
+        expect:
+        corpus.longestCommonPrefix(pattern) == expectedPrefixLength
+        corpus.longestCommonSuffix(pattern) == expectedSuffixLength
+
+        where:
+        sequence         | key                      | expectedPrefixLength | expectedSuffixLength | comment
+        []               | PatternCorpus.Key.VALUES | 0                    | 0                    | ""
+        [1, 2, 3, 9]     | PatternCorpus.Key.VALUES | 3                    | 0                    | ""
+        [1, 2]           | PatternCorpus.Key.VALUES | 2                    | 2                    | "a whole pattern"
+        [0, 3, 4]        | PatternCorpus.Key.VALUES | 0                    | 2                    | ""
+        [1, 2, 3, 4, 5]  | PatternCorpus.Key.VALUES | 4                    | 1                    | "longer than all patterns"
+        [20, 21, 22, 30] | PatternCorpus.Key.DELTAS | 2                    | 0                    | "deltas ignore the offset"
+        [0, 5, 6, 7]     | PatternCorpus.Key.DELTAS | 0                    | 2                    | ""
+
+    }
+
+    def "find all patterns sharing a prefix or a suffix"() {
+
+        given:
+        PatternCorpus<Long> corpus = PatternCorpus.of(SEQUENCES.collect { NumericPattern.unsorted(it) }, key)
+        NumericPattern<Long> pattern = NumericPattern.unsorted(sequence as long[])
+
+        expect:
+        corpus.sharingPrefix(pattern, length).toArray() as List == expectedPrefixIndices
+        corpus.sharingSuffix(pattern, length).toArray() as List == expectedSuffixIndices
+
+        where:
+        sequence     | length | key                      | expectedPrefixIndices | expectedSuffixIndices | comment
+        [1, 2, 3, 4] | 0      | PatternCorpus.Key.VALUES | 0..6                  | 0..6                  | "every pattern"
+        [1, 2, 3, 4] | 2      | PatternCorpus.Key.VALUES | [0, 1, 2, 6]          | [0, 3]                | ""
+        [1, 2, 3, 4] | 3      | PatternCorpus.Key.VALUES | [0]                   | [0, 3]                | ""
+        [1, 2, 3, 4] | 5      | PatternCorpus.Key.VALUES | []                    | []                    | "longer than the pattern"
+        [1, 2, 5]    | 3      | PatternCorpus.Key.VALUES | [1, 6]                | [1, 6]                | "duplicates"
+        [1, 2, 3, 4] | 3      | PatternCorpus.Key.DELTAS | [0, 4]                | [0, 4]                | ""
+        [5, 6]       | 1      | PatternCorpus.Key.DELTAS | [0, 1, 2, 4, 6]       | [0, 2, 3, 4]          | ""
+
+    }
+
+    def "primitive and boxed patterns have the same keys"() {
+
+        given:
+        PatternCorpus<Long> corpus = PatternCorpus.of([NumericPattern.sorted([3L, 4L, 6L]), NumericPattern.sorted([3L, 4L, 6L] as long[])])
+
+        expect:
+        corpus.sharingPrefix(NumericPattern.sorted([3, 4, 6]), 3).toArray() == [0, 1] as int[]
+
+    }
+
+}
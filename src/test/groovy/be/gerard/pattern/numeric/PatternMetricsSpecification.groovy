@@ -0,0 +1,197 @@
+package be.gerard.pattern.numeric
+
+import be.gerard.pattern.numeric.internal.AnalysisProbe
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingFile
+import spock.lang.Specification
+import spock.lang.Title
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ForkJoinPool
+
+@Title("PatternMetrics")
+class PatternMetricsSpecification extends Specification {
+
+    static class RecordingMetrics implements PatternMetrics {
+
+        final Map<List<Object>, Long> counts = new ConcurrentHashMap<>()
+        final Map<Analysis, Long> timings = new ConcurrentHashMap<>()
+
+        @Override
+        void count(Analysis analysis, Counter counter, long amount) {
+            counts.merge([analysis, counter], amount, Long::sum)
+        }
+
+        @Override
+        void time(Analysis analysis, long durationNanos) {
+            timings.merge(analysis, 1L, Long::sum)
+        }
+
+    }
+
+    def cleanup() {
+        PatternMetrics.install(PatternMetrics.NONE)
+    }
+
+    def "installed metrics are told about every analysis"() {
+
+        given:
+        RecordingMetrics metrics = new RecordingMetrics()
+        List<Long> sequence = [1L, 2L, 1L, 2L, 1L, 2L, 7L]
+        SortedNumericPattern<Long> sorted = NumericPattern.sorted([1L, 5L, 9L, 13L, 14L, 16L, 18L])
+
+        when:
+        PatternMetrics.install(metrics)
+        NumericPattern.splitByMostLikelyPattern(sequence)
+        Set<Fit.Sequential<Long>> partialFits = NumericPattern.findAllNonRepeatablePartialFits(sequence)
+        Set<Fit<Long>> fits = sorted.groupCommonIncrements(4)
+
+        then:
+        PatternMetrics.installed().is(metrics)
+
+        and:
+        metrics.timings[PatternMetrics.Analysis.SPLIT_BY_MOST_LIKELY_PATTERN] == 1
+        metrics.timings[PatternMetrics.Analysis.GROUP_COMMON_INCREMENTS] == 1
+        metrics.counts[[PatternMetrics.Analysis.SPLIT_BY_MOST_LIKELY_PATTERN, PatternMetrics.Counter.INPUT_VALUES]] == 7
+        metrics.counts[[PatternMetrics.Analysis.SPLIT_BY_MOST_LIKELY_PATTERN, PatternMetrics.Counter.CANDIDATE_SUBSEQUENCES]] > 0
+        metrics.counts[[PatternMetrics.Analysis.GROUP_COMMON_INCREMENTS, PatternMetrics.Counter.INPUT_VALUES]] == 7
+        metrics.counts[[PatternMetrics.Analysis.GROUP_COMMON_INCREMENTS, PatternMetrics.Counter.CANDIDATE_SUBSEQUENCES]] == fits.size()
+
+        and: "the split also finds the partial fits of its unhandled range"
+        metrics.timings[PatternMetrics.Analysis.FIND_ALL_NON_REPEATABLE_PARTIAL_FITS] >= 1
+        metrics.counts[[PatternMetrics.Analysis.FIND_ALL_NON_REPEATABLE_PARTIAL_FITS, PatternMetrics.Counter.CANDIDATE_SUBSEQUENCES]] >= partialFits.size()
+
+    }
+
+    def "installed metrics are told about every public analysis"() {
+
+        given:
+        RecordingMetrics metrics = new RecordingMetrics()
+        List<Long> sequence = [1L, 2L, 1L, 2L, 1L, 2L, 7L]
+        SortedNumericPattern<Long> sorted = NumericPattern.sorted([1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L])
+
+        when:
+        PatternMetrics.install(metrics)
+        NumericPattern.splitByMostLikelyPattern(sequence)
+        NumericPattern.findAllBestFittingSubsequences(sequence)
+        NumericPattern.findAllRuns(sequence)
+        NumericPattern.findAllNonRepeatablePartialFits(sequence)
+        NumericPattern.findAllPartialFits(sequence)
+        sorted.groupCommonIncrements(4)
+        sorted.groupCycles(8)
+
+        then:
+        PatternMetrics.Analysis.values().every { metrics.timings[it] >= 1 }
+        PatternMetrics.Analysis.values().every { metrics.counts[[it, PatternMetrics.Counter.CANDIDATE_SUBSEQUENCES]] > 0 }
+
+    }
+
+    def "installed metrics are told about analyses which fail"() {
+
+        given:
+        RecordingMetrics metrics = new RecordingMetrics()
+        PatternMetrics.install(metrics)
+
+        when:
+        NumericPattern.splitByMostLikelyPattern([1L, 2L, null, 2L])
+
+        then:
+        thrown(NullPointerException)
+
+        and:
+        metrics.timings[PatternMetrics.Analysis.SPLIT_BY_MOST_LIKELY_PATTERN] == 1
+        metrics.counts[[PatternMetrics.Analysis.SPLIT_BY_MOST_LIKELY_PATTERN, PatternMetrics.Counter.INPUT_VALUES]] == 4
+
+    }
+
+    def "metrics are told nothing once they are replaced"() {
+
+        given:
+        RecordingMetrics metrics = new RecordingMetrics()
+        PatternMetrics.install(metrics)
+
+        when:
+        PatternMetrics.install(PatternMetrics.NONE)
+        NumericPattern.splitByMostLikelyPattern([1L, 2L, 1L, 2L, 1L, 2L, 7L])
+
+        then:
+        metrics.counts.isEmpty()
+        metrics.timings.isEmpty()
+
+    }
+
+    def "metrics can not be null"() {
+
+        when:
+        PatternMetrics.install(null)
+
+        then:
+        thrown(NullPointerException)
+
+    }
+
+    def "a provider which can not be loaded falls back to no metrics"() {
+
+        given:
+        Path directory = Files.createTempDirectory("providers")
+        Path services = Files.createDirectories(directory.resolve("META-INF/services"))
+        Files.writeString(services.resolve(PatternMetrics.name), "be.gerard.pattern.numeric.MissingMetrics")
+        URLClassLoader loader = new URLClassLoader([directory.toUri().toURL()] as URL[], getClass().classLoader)
+
+        expect:
+        AnalysisProbe.provided(ServiceLoader.load(PatternMetrics, loader)).is(PatternMetrics.NONE)
+
+        cleanup:
+        loader.close()
+        directory.toFile().deleteDir()
+
+    }
+
+    def "the analyses are recorded as flight recorder events"() {
+
+        given:
+        Recording recording = new Recording()
+        recording.enable("be.gerard.pattern.numeric.SplitByMostLikelyPattern")
+        recording.enable("be.gerard.pattern.numeric.GroupCommonIncrements")
+        Path file = Files.createTempFile("analyses", ".jfr")
+
+        when:
+        recording.start()
+        NumericPattern.splitByMostLikelyPattern(sequence)
+        NumericPattern.splitByMostLikelyPattern(sequence, ForkJoinPool.commonPool())
+        NumericPattern.sorted([1L, 2L, 3L, 10L, 20L, 30L]).groupCommonIncrements(10)
+        recording.stop()
+        recording.dump(file)
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file)
+        List<RecordedEvent> splits = events.findAll { it.eventType.name == "be.gerard.pattern.numeric.SplitByMostLikelyPattern" }
+        List<RecordedEvent> groupings = events.findAll { it.eventType.name == "be.gerard.pattern.numeric.GroupCommonIncrements" }
+
+        then:
+        splits.size() == 2
+        splits.every { it.getInt("inputSize") == sequence.size() }
+        splits.every { it.getInt("recursionDepth") == expectedRecursionDepth }
+        splits.every { it.getLong("candidateCount") > 0 }
+        splits.every { !it.duration.isNegative() }
+
+        and:
+        groupings.size() == 1
+        groupings[0].getInt("inputSize") == 6
+        groupings[0].getLong("candidateCount") == 2
+        groupings[0].getInt("recursionDepth") == 1
+
+        cleanup:
+        recording.close()
+        Files.deleteIfExists(file)
+
+        where:
+        sequence                     | expectedRecursionDepth | comment
+        [1L, 2L, 1L, 2L, 1L, 2L]     | 0                      | ""
+        [1L, 2L, 1L, 2L, 1L, 2L, 7L] | 1                      | "the last value is split again"
+
+    }
+
+}
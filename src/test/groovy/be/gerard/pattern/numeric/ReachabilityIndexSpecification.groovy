@@ -0,0 +1,110 @@
+package be.gerard.pattern.numeric
+
+
+import spock.lang.Specification
+import spock.lang.Title
+
+import java.util.stream.LongStream
+
+@Title("ReachabilityIndex")
+class ReachabilityIndexSpecification extends Specification {
+
+    def "reachability matches a brute force repetition of the cycle"() {
+
+        given:
+        SortedNumericPattern<Integer> pattern = NumericPattern.sorted(sequence)
+        ReachabilityIndex index = pattern.reachability()
+        long[] numbers = LongStream.rangeClosed(-30, 30).toArray()
+
+        when:
+        boolean[] reachable = index.canReach(numbers)
+
+        then:
+        index.cycleLength() == expectedCycleLength
+        (0..<numbers.length).every { reachable[it] == expectedReachable.contains(numbers[it] as int) }
+
+        where:
+        sequence        | expectedCycleLength | expectedReachable                                       | comment
+        [2, 4, 6]       | 2                   | (-30..30).findAll { it % 2 == 0 }                       | ""
+        [1, 2, 4, 5, 7] | 3                   | (-30..30).findAll { Math.floorMod(it - 1, 3) != 2 }     | ""
+        [0, 1, 3, 8]    | 8                   | (-30..30).findAll { Math.floorMod(it, 8) in [0, 1, 3] } | "a single cycle"
+        [5]             | 0                   | [5]                                                     | ""
+
+    }
+
+    def "next and previous reachable"() {
+
+        given:
+        SortedNumericPattern<Integer> pattern = NumericPattern.sorted(sequence)
+
+        expect:
+        pattern.nextReachable(number) == (expectedNext == null ? OptionalLong.empty() : OptionalLong.of(expectedNext))
+        pattern.previousReachable(number) == (expectedPrevious == null ? OptionalLong.empty() : OptionalLong.of(expectedPrevious))
+
+        where:
+        sequence        | number | expectedNext | expectedPrevious | comment
+        [1, 2, 4, 5, 7] | 3      | 4            | 2                | ""
+        [1, 2, 4, 5, 7] | 4      | 4            | 4                | "inclusive"
+        [1, 2, 4, 5, 7] | -3     | -2           | -4               | "before the first element"
+        [1, 2, 4, 5, 7] | 100    | 100          | 100              | "after the last element"
+        [1, 2, 4, 5, 7] | 102    | 103          | 101              | ""
+        [5]             | 4      | 5            | null             | ""
+        [5]             | 6      | null         | 5                | ""
+
+    }
+
+    def "all reachable numbers in a range"() {
+
+        given:
+        SortedNumericPattern<Integer> pattern = NumericPattern.sorted(sequence)
+
+        when:
+        List<Long> reachable = pattern.reachable(from, to).boxed().toList()
+        BitSet reachableBetween = pattern.reachableBetween(from, to)
+
+        then:
+        reachable == expectedReachable
+        reachableBetween.stream().toArray().collect { it + from } == expectedReachable
+
+        where:
+        sequence        | from | to | expectedReachable      | comment
+        [1, 2, 4, 5, 7] | -3   | 5  | [-2, -1, 1, 2, 4]      | ""
+        [1, 2, 4, 5, 7] | 8    | 8  | []                     | "empty range"
+        [0, 10]         | 1    | 9  | []                     | ""
+        [0, 10]         | -20  | 21 | [-20, -10, 0, 10, 20]  | ""
+        [5]             | 0    | 10 | [5]                    | ""
+
+    }
+
+    def "nothing is reachable for an empty pattern"() {
+
+        given:
+        ReachabilityIndex index = ReachabilityIndex.of(NumericPattern.empty())
+
+        expect:
+        !index.canReach(0)
+        index.nextReachable(0).isEmpty()
+        index.previousReachable(0).isEmpty()
+        index.reachableBetween(-10, 10).isEmpty()
+
+    }
+
+    def "patterns build their index once"() {
+
+        expect:
+        pattern.reachability().is(pattern.reachability())
+        pattern.canReach(pattern.first())
+
+        where:
+        pattern                                                                                                | comment
+        NumericPattern.sorted([1, 2, 4, 5, 7])                                                                 | ""
+        NumericPattern.sorted([1, 2, 4, 5, 7] as long[])                                                       | ""
+        NumericPattern.builder().appendAll([1, 2, 4, 5, 7] as long[]).build()                                  | "a snapshot of a builder"
+        NumericPattern.cyclic(1, [1, 2] as long[], 2)                                                          | ""
+        NumericPattern.cyclic(1, [1, 2] as long[])                                                             | "unbounded"
+        NumericPattern.ranges([NumericRange.of(1, 2), NumericRange.of(4, 5)])                                  | ""
+        NumericPattern.sorted([1, 2, 4, 5, 7] as long[]).intersection(NumericPattern.sorted([2, 4] as long[])) | ""
+
+    }
+
+}
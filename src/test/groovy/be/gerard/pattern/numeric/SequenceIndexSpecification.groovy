@@ -0,0 +1,60 @@
+package be.gerard.pattern.numeric
+
+
+import spock.lang.Specification
+import spock.lang.Title
+
+import static org.assertj.core.api.Assertions.assertThat
+
+@Title("SequenceIndex")
+class SequenceIndexSpecification extends Specification {
+
+    def "count occurrences"() {
+
+        given:
+        SequenceIndex<Integer> index = SequenceIndex.of(sequence)
+
+        when:
+        int occurrences = index.countOccurrences(subsequence)
+        int firstOccurrence = index.indexOf(subsequence)
+
+        then:
+        occurrences == expectedOccurrences
+        firstOccurrence == Collections.indexOfSubList(sequence, subsequence)
+
+        where:
+        sequence              | subsequence | expectedOccurrences | comment
+        []                    | [1]         | 0                   | ""
+        [1]                   | [1]         | 1                   | ""
+        [1]                   | [2]         | 0                   | ""
+        [1, 2, 1, 2, 1]       | [1, 2]      | 2                   | ""
+        [1, 2, 1, 2, 1]       | [2, 1]      | 2                   | ""
+        [1, 2, 1, 2, 1]       | [1, 2, 1]   | 2                   | "occurrences can overlap"
+        [1, 2, 1, 2, 1]       | [1, 1]      | 0                   | ""
+        [1, 2, 1, 2, 1]       | [3]         | 0                   | "value which is not part of the sequence"
+        [3, 1, 2, 1, 1, 2, 1] | [1, 2, 1]   | 2                   | ""
+
+    }
+
+    def "find all distinct subsequences"() {
+
+        given:
+        SequenceIndex<Integer> index = SequenceIndex.of(sequence)
+
+        when:
+        List<List<Integer>> subsequences = index.streamDistinctSubsequences().toList()
+
+        then:
+        assertThat(subsequences).containsExactlyInAnyOrderElementsOf(expectedSubsequences)
+        index.countDistinctSubsequences() == expectedSubsequences.size()
+
+        where:
+        sequence  | expectedSubsequences                  | comment
+        []        | []                                    | ""
+        [1]       | [[1]]                                 | ""
+        [1, 1]    | [[1], [1, 1]]                         | ""
+        [1, 2, 1] | [[1], [2], [1, 2], [2, 1], [1, 2, 1]] | ""
+
+    }
+
+}